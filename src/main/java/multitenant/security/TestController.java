@@ -6,6 +6,7 @@ import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.stream.Collectors;
+import multitenant.security.session.TenantSessionContext;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -22,11 +23,8 @@ public class TestController {
       HttpServletRequest request,
       HttpSession httpSession) {
 
-    httpSession.setAttribute("tenantId", tenant);
-    httpSession.setAttribute("userId", user);
-    httpSession.setAttribute("countryCode", country);
-    httpSession.setAttribute("groupIds", toGroupSet(groupParam));
-    httpSession.setAttribute("clientIp", request.getRemoteAddr());
+    new TenantSessionContext(tenant, user, toGroupSet(groupParam), country,
+        request.getRemoteAddr()).store(httpSession);
     return "session context initialized";
   }
 
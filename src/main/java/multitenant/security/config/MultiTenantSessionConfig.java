@@ -4,19 +4,33 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import java.time.Duration;
 import java.util.UUID;
+import multitenant.security.session.CompactSessionSerializer;
+import multitenant.security.session.LegacySessionIndexCleaner;
+import multitenant.security.session.LightweightSessionRepository;
+import multitenant.security.session.NearCachedSessionRepository;
+import multitenant.security.session.PipelinedSessionRepository;
+import multitenant.security.session.SessionNearCache;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.session.SessionIdGenerator;
 import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisHttpSession;
 import org.springframework.session.data.redis.config.annotation.web.http.EnableRedisIndexedHttpSession;
 
 @Configuration
-@EnableRedisIndexedHttpSession(redisNamespace = "octatco:sso")
 public class MultiTenantSessionConfig {
 
   @Bean
@@ -32,8 +46,11 @@ public class MultiTenantSessionConfig {
   }
 
   @Bean
-  public RedisSerializer<Object> springSessionDefaultRedisSerializer(ObjectMapper objectMapper) {
-    return RedisSerializer.java();
+  public RedisSerializer<Object> springSessionDefaultRedisSerializer(
+      @Value("${session.serializer.write-format:COMPACT}")
+      CompactSessionSerializer.WriteFormat writeFormat) {
+    // 등록된 타입은 압축 형식으로, 나머지와 기존 값은 JDK 직렬화로 처리한다.
+    return new CompactSessionSerializer(writeFormat);
   }
 
   @Bean
@@ -52,6 +69,8 @@ public class MultiTenantSessionConfig {
   }
 
   @Bean
+  @ConditionalOnProperty(prefix = "session.redis", name = "mode", havingValue = "indexed",
+      matchIfMissing = true)
   public RedisIndexedSessionRepository tenantAwareSessionRepository(
       RedisOperations<String, Object> sessionRedisOperations) {
     RedisIndexedSessionRepository repository =
@@ -65,4 +84,58 @@ public class MultiTenantSessionConfig {
     return repository;
   }
 
+  /**
+   * 기존 인덱스 저장소 모드. 만료·삭제 이벤트와 주체 인덱스가 필요하면 이 모드를 쓴다.
+   * 두 모드는 같은 세션 해시 키({namespace}:sessions:{id})와 필드를 쓰므로 전환해도 세션이 유지된다.
+   */
+  @Configuration
+  @ConditionalOnProperty(prefix = "session.redis", name = "mode", havingValue = "indexed",
+      matchIfMissing = true)
+  @EnableRedisIndexedHttpSession(redisNamespace = "octatco:sso")
+  static class IndexedSessionConfig {
+
+    /**
+     * 세션 필터와 다른 구성요소가 주입받는 기본 저장소. 요청마다의 세션 쓰기를 파이프라인 한 번으로 보낸다.
+     * {@code session.near-cache.enabled} 가 켜져 있으면 노드 로컬 near-cache 를 앞에 둔다.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "session.redis", name = "pipelined", havingValue = "true",
+        matchIfMissing = true)
+    public PipelinedSessionRepository pipelinedSessionRepository(
+        @Qualifier("sessionRepository") RedisIndexedSessionRepository sessionRepository,
+        ObjectProvider<SessionNearCache> sessionNearCache) {
+      SessionNearCache nearCache = sessionNearCache.getIfAvailable();
+      if (nearCache != null) {
+        return new NearCachedSessionRepository(sessionRepository, "octatco:sso", nearCache);
+      }
+      return new PipelinedSessionRepository(sessionRepository, "octatco:sso");
+    }
+  }
+
+  /**
+   * 경량 저장소 모드. 세션마다 해시 하나만 유지하고, 세션 수 제한용 인덱스는 테넌트 레지스트리가 관리한다.
+   * 만료 이벤트가 없으므로 레지스트리 항목은 {@code session.limit.registry.stale-after} 로 정리된다.
+   */
+  @Configuration
+  @ConditionalOnProperty(prefix = "session.redis", name = "mode", havingValue = "lightweight")
+  @EnableRedisHttpSession(redisNamespace = "octatco:sso")
+  static class LightweightSessionConfig {
+
+    @Bean
+    @Primary
+    public LightweightSessionRepository lightweightSessionRepository(
+        @Qualifier("sessionRepository") RedisSessionRepository sessionRepository,
+        ApplicationEventPublisher eventPublisher) {
+      return new LightweightSessionRepository(sessionRepository, "octatco:sso", eventPublisher);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "session.redis", name = "legacy-index-cleanup",
+        havingValue = "true")
+    public LegacySessionIndexCleaner legacySessionIndexCleaner(
+        StringRedisTemplate stringRedisTemplate) {
+      return new LegacySessionIndexCleaner(stringRedisTemplate, "octatco:sso");
+    }
+  }
 }
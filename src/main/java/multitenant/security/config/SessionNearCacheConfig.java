@@ -0,0 +1,24 @@
+package multitenant.security.config;
+
+import multitenant.security.session.SessionNearCache;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "session.near-cache", name = "enabled", havingValue = "true")
+public class SessionNearCacheConfig {
+
+  @Bean
+  public RedisMessageListenerContainer sessionNearCacheListenerContainer(
+      RedisConnectionFactory redisConnectionFactory, SessionNearCache sessionNearCache) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(sessionNearCache,
+        new ChannelTopic(sessionNearCache.getChannel()));
+    return container;
+  }
+}
@@ -2,18 +2,24 @@ package multitenant.security.policy.admin;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpSession;
+import java.time.Duration;
 import java.time.ZoneId;
 import java.util.Arrays;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import multitenant.security.policy.domain.PolicyConditionType;
 import multitenant.security.policy.domain.PolicyEffect;
 import multitenant.security.policy.filter.SessionPolicyFilter;
 import multitenant.security.securitylevel.SecurityLevelState;
 import multitenant.security.securitylevel.service.SecurityLevelService;
+import multitenant.security.session.TenantSessionContext;
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
 import multitenant.security.sessionlimit.domain.TenantSessionLimit;
+import multitenant.security.sessionlimit.service.SessionLimitSettings;
 import multitenant.security.sessionlimit.service.TenantSessionLimitService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -104,24 +110,20 @@ public class PolicyAdminController {
   public String seedSessionContext(@ModelAttribute PolicyTestForm sessionForm,
       HttpServletRequest request, RedirectAttributes redirectAttributes) {
     HttpSession session = request.getSession(true);
-    if (StringUtils.hasText(sessionForm.getTenantId())) {
-      session.setAttribute("tenantId", sessionForm.getTenantId().trim());
-    }
-    if (StringUtils.hasText(sessionForm.getUserId())) {
-      session.setAttribute("userId", sessionForm.getUserId().trim());
-    }
-    session.setAttribute("groupIds", Arrays.stream(
+    TenantSessionContext current = TenantSessionContext.read(session);
+    Set<String> groupIds = Arrays.stream(
             StringUtils.hasText(sessionForm.getGroupIds()) ? sessionForm.getGroupIds().split(",|\n")
                 : new String[0])
         .map(String::trim)
         .filter(StringUtils::hasText)
-        .collect(Collectors.toCollection(LinkedHashSet::new)));
-    if (StringUtils.hasText(sessionForm.getCountryCode())) {
-      session.setAttribute("countryCode", sessionForm.getCountryCode().trim());
-    }
-    if (StringUtils.hasText(sessionForm.getClientIp())) {
-      session.setAttribute("clientIp", sessionForm.getClientIp().trim());
-    }
+        .collect(Collectors.toCollection(LinkedHashSet::new));
+    new TenantSessionContext(
+        formValueOr(sessionForm.getTenantId(), current == null ? null : current.tenantId()),
+        formValueOr(sessionForm.getUserId(), current == null ? null : current.userId()),
+        groupIds,
+        formValueOr(sessionForm.getCountryCode(), current == null ? null : current.countryCode()),
+        formValueOr(sessionForm.getClientIp(), current == null ? null : current.clientIp())
+    ).store(session);
     redirectAttributes.addFlashAttribute("successMessage", "세션 컨텍스트가 갱신되었습니다.");
     redirectAttributes.addFlashAttribute("testForm", sessionForm);
     return "redirect:/admin/policies";
@@ -141,16 +143,33 @@ public class PolicyAdminController {
     return "redirect:/admin/policies";
   }
 
+  @PostMapping("/security-level/partitions")
+  public String partitionSecurityEvents(RedirectAttributes redirectAttributes) {
+    try {
+      securityLevelService.partitionEventTable();
+      redirectAttributes.addFlashAttribute("successMessage",
+          "이벤트 테이블 파티션 전환을 시작했습니다. 결과는 로그에서 확인하세요.");
+    } catch (IllegalStateException ex) {
+      redirectAttributes.addFlashAttribute("errorMessage", ex.getMessage());
+    }
+    return "redirect:/admin/policies";
+  }
+
   @PostMapping("/limits")
   public String upsertSessionLimit(@ModelAttribute TenantSessionLimitForm limitForm,
       RedirectAttributes redirectAttributes) {
     try {
-      int maxSessions = limitForm.getMaxSessions() == null ? 0 : limitForm.getMaxSessions();
-      int maxIdleSeconds = limitForm.getMaxIdleSeconds() == null ? 0 : limitForm.getMaxIdleSeconds();
-      int maxDurationSeconds =
-          limitForm.getMaxDurationSeconds() == null ? 0 : limitForm.getMaxDurationSeconds();
-      TenantSessionLimit saved = tenantSessionLimitService
-          .upsert(limitForm.getTenantId(), maxSessions, maxIdleSeconds, maxDurationSeconds);
+      SessionLimitSettings settings = new SessionLimitSettings(
+          valueOrZero(limitForm.getMaxSessions()),
+          valueOrZero(limitForm.getMaxSessionsPerUser()),
+          limitForm.getEvictionPolicy(),
+          Duration.ofSeconds(valueOrZero(limitForm.getMaxIdleSeconds())),
+          Duration.ofSeconds(valueOrZero(limitForm.getMaxDurationSeconds())),
+          limitForm.getRotationStrategy(),
+          Duration.ofSeconds(valueOrZero(limitForm.getRotationIntervalSeconds())),
+          valueOrZero(limitForm.getRotationRequestCount()));
+      TenantSessionLimit saved = tenantSessionLimitService.upsert(limitForm.getTenantId(),
+          settings);
       redirectAttributes.addFlashAttribute("successMessage",
           String.format("테넌트 %s 세션 제한이 저장되었습니다.", saved.getTenantId()));
     } catch (IllegalArgumentException ex) {
@@ -168,11 +187,14 @@ public class PolicyAdminController {
       PolicyTestForm form = new PolicyTestForm();
       HttpSession session = request.getSession(false);
       if (session != null) {
-        form.setTenantId(attributeAsString(session.getAttribute("tenantId")));
-        form.setUserId(attributeAsString(session.getAttribute("userId")));
-        form.setGroupIds(joinCollection(session.getAttribute("groupIds")));
-        form.setCountryCode(attributeAsString(session.getAttribute("countryCode")));
-        form.setClientIp(attributeAsString(session.getAttribute("clientIp")));
+        TenantSessionContext context = TenantSessionContext.read(session);
+        if (context != null) {
+          form.setTenantId(context.tenantId());
+          form.setUserId(context.userId());
+          form.setGroupIds(joinCollection(context.groupIds()));
+          form.setCountryCode(context.countryCode());
+          form.setClientIp(context.clientIp());
+        }
         form.setDate(attributeAsString(session.getAttribute("lastTestDate")));
         form.setTime(attributeAsString(session.getAttribute("lastTestTime")));
         form.setZoneId(attributeAsString(session.getAttribute("lastTestZone")));
@@ -202,6 +224,8 @@ public class PolicyAdminController {
       model.addAttribute("sessionLimitForm", limitForm);
     }
     model.addAttribute("tenantSessionLimits", tenantSessionLimitService.findAll());
+    model.addAttribute("rotationStrategies", SessionRotationStrategy.values());
+    model.addAttribute("evictionPolicies", SessionEvictionPolicy.values());
   }
 
   private void enrichSessionAttributes(Model model, HttpSession session) {
@@ -210,11 +234,12 @@ public class PolicyAdminController {
       return;
     }
     Map<String, Object> attributes = new LinkedHashMap<>();
-    attributes.put("tenantId", session.getAttribute("tenantId"));
-    attributes.put("userId", session.getAttribute("userId"));
-    attributes.put("groupIds", session.getAttribute("groupIds"));
-    attributes.put("countryCode", session.getAttribute("countryCode"));
-    attributes.put("clientIp", session.getAttribute("clientIp"));
+    TenantSessionContext context = TenantSessionContext.read(session);
+    attributes.put("tenantId", context == null ? null : context.tenantId());
+    attributes.put("userId", context == null ? null : context.userId());
+    attributes.put("groupIds", context == null ? null : context.groupIds());
+    attributes.put("countryCode", context == null ? null : context.countryCode());
+    attributes.put("clientIp", context == null ? null : context.clientIp());
     attributes.put(SessionPolicyFilter.SESSION_POLICY_ID_ATTR,
         session.getAttribute(SessionPolicyFilter.SESSION_POLICY_ID_ATTR));
     attributes.put(SessionPolicyFilter.SESSION_POLICY_EFFECT_ATTR,
@@ -230,6 +255,14 @@ public class PolicyAdminController {
     session.setAttribute("lastTestZone", form.getZoneId());
   }
 
+  private int valueOrZero(Integer value) {
+    return value == null ? 0 : value;
+  }
+
+  private String formValueOr(String formValue, String currentValue) {
+    return StringUtils.hasText(formValue) ? formValue.trim() : currentValue;
+  }
+
   private String attributeAsString(Object value) {
     if (value == null) {
       return null;
@@ -1,11 +1,19 @@
 package multitenant.security.policy.admin;
 
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
+
 public class TenantSessionLimitForm {
 
   private String tenantId;
   private Integer maxSessions;
+  private Integer maxSessionsPerUser;
+  private SessionEvictionPolicy evictionPolicy = SessionEvictionPolicy.OLDEST_FIRST;
   private Integer maxIdleSeconds;
   private Integer maxDurationSeconds;
+  private SessionRotationStrategy rotationStrategy = SessionRotationStrategy.ON_LOGIN;
+  private Integer rotationIntervalSeconds;
+  private Integer rotationRequestCount;
 
   public String getTenantId() {
     return tenantId;
@@ -23,6 +31,22 @@ public class TenantSessionLimitForm {
     this.maxSessions = maxSessions;
   }
 
+  public Integer getMaxSessionsPerUser() {
+    return maxSessionsPerUser;
+  }
+
+  public void setMaxSessionsPerUser(Integer maxSessionsPerUser) {
+    this.maxSessionsPerUser = maxSessionsPerUser;
+  }
+
+  public SessionEvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  public void setEvictionPolicy(SessionEvictionPolicy evictionPolicy) {
+    this.evictionPolicy = evictionPolicy;
+  }
+
   public Integer getMaxIdleSeconds() {
     return maxIdleSeconds;
   }
@@ -38,4 +62,28 @@ public class TenantSessionLimitForm {
   public void setMaxDurationSeconds(Integer maxDurationSeconds) {
     this.maxDurationSeconds = maxDurationSeconds;
   }
+
+  public SessionRotationStrategy getRotationStrategy() {
+    return rotationStrategy;
+  }
+
+  public void setRotationStrategy(SessionRotationStrategy rotationStrategy) {
+    this.rotationStrategy = rotationStrategy;
+  }
+
+  public Integer getRotationIntervalSeconds() {
+    return rotationIntervalSeconds;
+  }
+
+  public void setRotationIntervalSeconds(Integer rotationIntervalSeconds) {
+    this.rotationIntervalSeconds = rotationIntervalSeconds;
+  }
+
+  public Integer getRotationRequestCount() {
+    return rotationRequestCount;
+  }
+
+  public void setRotationRequestCount(Integer rotationRequestCount) {
+    this.rotationRequestCount = rotationRequestCount;
+  }
 }
@@ -0,0 +1,147 @@
+package multitenant.security.policy.condition;
+
+import java.util.Arrays;
+
+/**
+ * IPv4/IPv6 CIDR 목록을 경로 압축 이진 트라이(Patricia)로 보관한다. 조회 비용은 등록된 CIDR 개수가
+ * 아니라 주소 길이(최대 32/128 비트)에 비례한다. 생성 이후에는 읽기 전용으로만 사용한다.
+ */
+final class CidrTrie {
+
+  private Node ipv4Root;
+  private Node ipv6Root;
+  private int size;
+
+  void add(byte[] network, int prefixLength) {
+    int maxLength = network.length * 8;
+    if ((network.length != 4 && network.length != 16) || prefixLength < 0
+        || prefixLength > maxLength) {
+      throw new IllegalArgumentException("Invalid CIDR prefix length: " + prefixLength);
+    }
+    byte[] key = mask(network, prefixLength);
+    if (network.length == 4) {
+      ipv4Root = insert(ipv4Root, key, prefixLength);
+    } else {
+      ipv6Root = insert(ipv6Root, key, prefixLength);
+    }
+    size++;
+  }
+
+  boolean contains(byte[] address) {
+    Node node = address.length == 4 ? ipv4Root : address.length == 16 ? ipv6Root : null;
+    while (node != null) {
+      if (commonPrefixLength(node.key, address, node.prefixLength) < node.prefixLength) {
+        return false;
+      }
+      if (node.terminal) {
+        return true;
+      }
+      if (node.prefixLength >= address.length * 8) {
+        return false;
+      }
+      node = bit(address, node.prefixLength) == 0 ? node.zero : node.one;
+    }
+    return false;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  private Node insert(Node root, byte[] key, int prefixLength) {
+    if (root == null) {
+      return new Node(key, prefixLength, true);
+    }
+    Node parent = null;
+    int parentBit = 0;
+    Node node = root;
+    while (true) {
+      int limit = Math.min(node.prefixLength, prefixLength);
+      int common = commonPrefixLength(node.key, key, limit);
+      if (common < node.prefixLength) {
+        Node replacement;
+        if (common == prefixLength) {
+          replacement = new Node(key, prefixLength, true);
+          replacement.setChild(bit(node.key, prefixLength), node);
+        } else {
+          replacement = new Node(mask(key, common), common, false);
+          replacement.setChild(bit(node.key, common), node);
+          replacement.setChild(bit(key, common), new Node(key, prefixLength, true));
+        }
+        if (parent == null) {
+          return replacement;
+        }
+        parent.setChild(parentBit, replacement);
+        return root;
+      }
+      if (prefixLength == node.prefixLength) {
+        node.terminal = true;
+        return root;
+      }
+      int next = bit(key, node.prefixLength);
+      Node child = node.child(next);
+      if (child == null) {
+        node.setChild(next, new Node(key, prefixLength, true));
+        return root;
+      }
+      parent = node;
+      parentBit = next;
+      node = child;
+    }
+  }
+
+  private static int commonPrefixLength(byte[] left, byte[] right, int limit) {
+    int length = 0;
+    for (int i = 0; length < limit; i++) {
+      int diff = (left[i] ^ right[i]) & 0xFF;
+      if (diff != 0) {
+        return Math.min(limit, length + Integer.numberOfLeadingZeros(diff) - 24);
+      }
+      length += 8;
+    }
+    return limit;
+  }
+
+  private static int bit(byte[] key, int index) {
+    return (key[index >>> 3] >>> (7 - (index & 7))) & 1;
+  }
+
+  private static byte[] mask(byte[] address, int prefixLength) {
+    byte[] masked = Arrays.copyOf(address, address.length);
+    for (int i = 0; i < masked.length; i++) {
+      int remaining = prefixLength - i * 8;
+      if (remaining >= 8) {
+        continue;
+      }
+      masked[i] = remaining <= 0 ? 0 : (byte) (masked[i] & (0xFF << (8 - remaining)));
+    }
+    return masked;
+  }
+
+  private static final class Node {
+
+    private final byte[] key;
+    private final int prefixLength;
+    private boolean terminal;
+    private Node zero;
+    private Node one;
+
+    private Node(byte[] key, int prefixLength, boolean terminal) {
+      this.key = key;
+      this.prefixLength = prefixLength;
+      this.terminal = terminal;
+    }
+
+    private Node child(int bit) {
+      return bit == 0 ? zero : one;
+    }
+
+    private void setChild(int bit, Node child) {
+      if (bit == 0) {
+        zero = child;
+      } else {
+        one = child;
+      }
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package multitenant.security.policy.condition;
+
+import java.util.Arrays;
+
+/**
+ * IPv4/IPv6 주소 리터럴 파서. {@link java.net.InetAddress#getByName(String)} 와 달리 호스트 이름을
+ * 절대 해석하지 않으므로 요청 경로에서 DNS 조회로 스레드가 멈추는 일이 없다.
+ */
+public final class IpAddressLiterals {
+
+  private IpAddressLiterals() {
+  }
+
+  public static boolean isValid(String literal) {
+    return parse(literal) != null;
+  }
+
+  /**
+   * 주소 리터럴을 4바이트(IPv4) 또는 16바이트(IPv6) 배열로 변환한다. IPv4-mapped IPv6 주소는 IPv4 로
+   * 정규화하며, 리터럴이 아니면 {@code null} 을 반환한다.
+   */
+  public static byte[] parse(String literal) {
+    if (literal == null) {
+      return null;
+    }
+    int from = 0;
+    int to = literal.length();
+    if (to > 1 && literal.charAt(0) == '[' && literal.charAt(to - 1) == ']') {
+      from = 1;
+      to--;
+    }
+    if (from >= to) {
+      return null;
+    }
+    if (literal.indexOf(':', from) < 0) {
+      return parseIpv4(literal, from, to);
+    }
+    int zone = literal.indexOf('%', from);
+    if (zone >= 0 && zone < to) {
+      to = zone;
+    }
+    byte[] address = parseIpv6(literal, from, to);
+    if (address != null && isIpv4Mapped(address)) {
+      return Arrays.copyOfRange(address, 12, 16);
+    }
+    return address;
+  }
+
+  private static byte[] parseIpv4(String literal, int from, int to) {
+    byte[] address = new byte[4];
+    int octet = 0;
+    int i = from;
+    while (octet < 4) {
+      int value = 0;
+      int digits = 0;
+      while (i < to && isDecimal(literal.charAt(i))) {
+        value = value * 10 + (literal.charAt(i) - '0');
+        digits++;
+        i++;
+        if (digits > 3) {
+          return null;
+        }
+      }
+      if (digits == 0 || value > 255) {
+        return null;
+      }
+      address[octet++] = (byte) value;
+      if (octet < 4) {
+        if (i >= to || literal.charAt(i) != '.') {
+          return null;
+        }
+        i++;
+      }
+    }
+    return i == to ? address : null;
+  }
+
+  private static byte[] parseIpv6(String literal, int from, int to) {
+    byte[] address = new byte[16];
+    int groups = 0;
+    int compressAt = -1;
+    int i = from;
+    if (literal.charAt(i) == ':') {
+      if (i + 1 >= to || literal.charAt(i + 1) != ':') {
+        return null;
+      }
+      compressAt = 0;
+      i += 2;
+    }
+    while (i < to) {
+      if (groups >= 8) {
+        return null;
+      }
+      int start = i;
+      int value = 0;
+      int digits = 0;
+      while (i < to && digits <= 4) {
+        int digit = hexValue(literal.charAt(i));
+        if (digit < 0) {
+          break;
+        }
+        value = (value << 4) | digit;
+        digits++;
+        i++;
+      }
+      if (i < to && literal.charAt(i) == '.') {
+        if (groups > 6) {
+          return null;
+        }
+        byte[] ipv4 = parseIpv4(literal, start, to);
+        if (ipv4 == null) {
+          return null;
+        }
+        System.arraycopy(ipv4, 0, address, groups * 2, 4);
+        groups += 2;
+        break;
+      }
+      if (digits == 0 || digits > 4) {
+        return null;
+      }
+      address[groups * 2] = (byte) (value >>> 8);
+      address[groups * 2 + 1] = (byte) value;
+      groups++;
+      if (i == to) {
+        break;
+      }
+      if (literal.charAt(i) != ':') {
+        return null;
+      }
+      i++;
+      if (i < to && literal.charAt(i) == ':') {
+        if (compressAt >= 0) {
+          return null;
+        }
+        compressAt = groups;
+        i++;
+      } else if (i == to) {
+        return null;
+      }
+    }
+    if (compressAt < 0) {
+      return groups == 8 ? address : null;
+    }
+    if (groups >= 8) {
+      return null;
+    }
+    int tailBytes = (groups - compressAt) * 2;
+    System.arraycopy(address, compressAt * 2, address, 16 - tailBytes, tailBytes);
+    Arrays.fill(address, compressAt * 2, 16 - tailBytes, (byte) 0);
+    return address;
+  }
+
+  private static boolean isIpv4Mapped(byte[] address) {
+    for (int i = 0; i < 10; i++) {
+      if (address[i] != 0) {
+        return false;
+      }
+    }
+    return address[10] == (byte) 0xFF && address[11] == (byte) 0xFF;
+  }
+
+  private static boolean isDecimal(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static int hexValue(char c) {
+    if (c >= '0' && c <= '9') {
+      return c - '0';
+    }
+    if (c >= 'a' && c <= 'f') {
+      return c - 'a' + 10;
+    }
+    if (c >= 'A' && c <= 'F') {
+      return c - 'A' + 10;
+    }
+    return -1;
+  }
+}
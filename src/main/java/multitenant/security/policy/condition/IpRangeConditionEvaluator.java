@@ -1,18 +1,20 @@
 package multitenant.security.policy.condition;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.net.InetAddress;
-import java.net.UnknownHostException;
-import java.util.Collections;
 import java.util.List;
 import multitenant.security.policy.domain.PolicyConditionType;
-import multitenant.security.policy.domain.SessionPolicy;
 import multitenant.security.policy.service.PolicyEvaluationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 @Component
 class IpRangeConditionEvaluator implements PolicyConditionEvaluator {
 
+  private static final Logger log = LoggerFactory.getLogger(IpRangeConditionEvaluator.class);
+  // ::ffff:0:0/96 접두사. IPv4 매핑 주소는 4바이트로 정규화되므로 접두사 길이도 그만큼 줄인다.
+  private static final int IPV4_MAPPED_PREFIX = 96;
+
   private final ObjectMapper objectMapper;
 
   IpRangeConditionEvaluator(ObjectMapper objectMapper) {
@@ -25,73 +27,64 @@ class IpRangeConditionEvaluator implements PolicyConditionEvaluator {
   }
 
   @Override
-  public boolean matches(SessionPolicy policy, PolicyEvaluationContext context) {
-    if (context.clientIp() == null || context.clientIp().isBlank()) {
-      return false;
-    }
+  public PolicyConditionMatcher compile(String conditionValue) {
     try {
-      IpRangeCondition condition =
-          objectMapper.readValue(policy.getConditionValue(), IpRangeCondition.class);
-      List<String> cidrList = condition.cidr() == null ? Collections.emptyList() : condition.cidr();
-      if (cidrList.isEmpty()) {
-        return false;
+      IpRangeCondition condition = objectMapper.readValue(conditionValue, IpRangeCondition.class);
+      if (condition.cidr() == null) {
+        return PolicyConditionMatcher.NEVER;
       }
-      long ipValue = toNumeric(context.clientIp());
-      for (String cidr : cidrList) {
+      CidrTrie trie = new CidrTrie();
+      for (String cidr : condition.cidr()) {
         if (cidr == null || cidr.isBlank()) {
           continue;
         }
-        CidrRange range = parseCidr(cidr.trim());
-        if (range == null) {
-          continue;
-        }
-        if (range.contains(ipValue)) {
-          return true;
-        }
+        addCidr(trie, cidr.trim());
       }
-      return false;
+      if (trie.isEmpty()) {
+        return PolicyConditionMatcher.NEVER;
+      }
+      return new CidrMatcher(trie);
     } catch (Exception ex) {
-      return false;
+      return PolicyConditionMatcher.NEVER;
     }
   }
 
-  private CidrRange parseCidr(String cidr) {
-    String[] parts = cidr.split("/");
-    if (parts.length != 2) {
-      return null;
+  private static void addCidr(CidrTrie trie, String cidr) {
+    int slash = cidr.indexOf('/');
+    // 접두사 길이가 없는 항목은 기존처럼 무시한다. 단일 주소로 해석하면 기존 정책의 적용 범위가 바뀐다.
+    String literal = slash < 0 ? null : cidr.substring(0, slash);
+    byte[] network = literal == null ? null : IpAddressLiterals.parse(literal);
+    if (network == null) {
+      log.warn("IP 범위 조건의 CIDR 항목을 무시합니다: {}", cidr);
+      return;
     }
     try {
-      long base = toNumeric(parts[0]);
-      int prefix = Integer.parseInt(parts[1]);
-      if (prefix < 0 || prefix > 32) {
-        return null;
+      int prefix = Integer.parseInt(cidr.substring(slash + 1));
+      if (network.length == 4 && literal.indexOf(':') >= 0) {
+        if (prefix < IPV4_MAPPED_PREFIX) {
+          throw new IllegalArgumentException("IPv4 mapped prefix shorter than /96: " + prefix);
+        }
+        prefix -= IPV4_MAPPED_PREFIX;
       }
-      long mask = prefix == 0 ? 0 : ~((1L << (32 - prefix)) - 1) & 0xFFFFFFFFL;
-      return new CidrRange(base & mask, mask);
-    } catch (Exception ex) {
-      return null;
-    }
-  }
-
-  private long toNumeric(String ip) throws UnknownHostException {
-    InetAddress address = InetAddress.getByName(ip);
-    byte[] bytes = address.getAddress();
-    if (bytes.length != 4) {
-      throw new UnknownHostException("Only IPv4 addresses are supported");
+      trie.add(network, prefix);
+    } catch (IllegalArgumentException ex) {
+      // 잘못된 CIDR 항목은 건너뛰고 나머지 항목으로 정책을 구성한다.
+      log.warn("IP 범위 조건의 CIDR 항목을 무시합니다: {} ({})", cidr, ex.getMessage());
     }
-    long result = 0;
-    for (byte b : bytes) {
-      result = (result << 8) | (b & 0xFF);
-    }
-    return result & 0xFFFFFFFFL;
   }
 
   private record IpRangeCondition(List<String> cidr) {
   }
 
-  private record CidrRange(long network, long mask) {
-    boolean contains(long ip) {
-      return (ip & mask) == network;
+  private record CidrMatcher(CidrTrie trie) implements PolicyConditionMatcher {
+
+    @Override
+    public boolean matches(PolicyEvaluationContext context) {
+      if (context.clientIp() == null || context.clientIp().isBlank()) {
+        return false;
+      }
+      byte[] address = IpAddressLiterals.parse(context.clientIp().trim());
+      return address != null && trie.contains(address);
     }
   }
 }
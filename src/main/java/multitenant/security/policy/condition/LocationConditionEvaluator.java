@@ -1,11 +1,11 @@
 package multitenant.security.policy.condition;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Set;
 import multitenant.security.policy.domain.PolicyConditionType;
-import multitenant.security.policy.domain.SessionPolicy;
 import multitenant.security.policy.service.PolicyEvaluationContext;
 import org.springframework.stereotype.Component;
 
@@ -24,34 +24,42 @@ class LocationConditionEvaluator implements PolicyConditionEvaluator {
   }
 
   @Override
-  public boolean matches(SessionPolicy policy, PolicyEvaluationContext context) {
-    if (context.countryCode() == null || context.countryCode().isBlank()) {
-      return false;
-    }
+  public PolicyConditionMatcher compile(String conditionValue) {
     try {
-      LocationCondition condition =
-          objectMapper.readValue(policy.getConditionValue(), LocationCondition.class);
-      List<String> countries =
-          condition.countries() == null ? Collections.emptyList() : condition.countries();
-      if (countries.isEmpty()) {
-        return false;
+      LocationCondition condition = objectMapper.readValue(conditionValue, LocationCondition.class);
+      if (condition.countries() == null) {
+        return PolicyConditionMatcher.NEVER;
       }
-      String normalized = normalize(context.countryCode());
-      for (String country : countries) {
-        if (country != null && normalize(country).equals(normalized)) {
-          return true;
+      Set<String> countries = new HashSet<>();
+      for (String country : condition.countries()) {
+        if (country != null) {
+          countries.add(normalize(country));
         }
       }
-      return false;
+      if (countries.isEmpty()) {
+        return PolicyConditionMatcher.NEVER;
+      }
+      return new CountryMatcher(Set.copyOf(countries));
     } catch (Exception ex) {
-      return false;
+      return PolicyConditionMatcher.NEVER;
     }
   }
 
-  private String normalize(String country) {
+  private static String normalize(String country) {
     return country.trim().toUpperCase(Locale.ROOT);
   }
 
   private record LocationCondition(List<String> countries) {
   }
+
+  private record CountryMatcher(Set<String> countries) implements PolicyConditionMatcher {
+
+    @Override
+    public boolean matches(PolicyEvaluationContext context) {
+      if (context.countryCode() == null || context.countryCode().isBlank()) {
+        return false;
+      }
+      return countries.contains(normalize(context.countryCode()));
+    }
+  }
 }
@@ -1,12 +1,14 @@
 package multitenant.security.policy.condition;
 
 import multitenant.security.policy.domain.PolicyConditionType;
-import multitenant.security.policy.domain.SessionPolicy;
-import multitenant.security.policy.service.PolicyEvaluationContext;
 
 public interface PolicyConditionEvaluator {
 
   boolean supports(PolicyConditionType conditionType);
 
-  boolean matches(SessionPolicy policy, PolicyEvaluationContext context);
+  /**
+   * 정책의 conditionValue 를 한 번만 해석해 불변 matcher 로 변환한다. 해석할 수 없는 값은
+   * {@link PolicyConditionMatcher#NEVER} 로 취급한다.
+   */
+  PolicyConditionMatcher compile(String conditionValue);
 }
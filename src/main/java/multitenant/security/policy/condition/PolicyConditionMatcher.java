@@ -0,0 +1,21 @@
+package multitenant.security.policy.condition;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import multitenant.security.policy.service.PolicyEvaluationContext;
+
+@FunctionalInterface
+public interface PolicyConditionMatcher {
+
+  PolicyConditionMatcher NEVER = context -> false;
+
+  boolean matches(PolicyEvaluationContext context);
+
+  /**
+   * 요청 시각만 바뀌었을 때 결과가 달라질 수 있는 가장 이른 시점을 반환한다. 시각과 무관한 조건은
+   * {@code null} 을 반환한다.
+   */
+  default Instant nextTransitionAfter(ZonedDateTime requestDateTime) {
+    return null;
+  }
+}
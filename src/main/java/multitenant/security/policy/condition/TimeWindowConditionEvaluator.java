@@ -2,11 +2,12 @@ package multitenant.security.policy.condition;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import multitenant.security.policy.domain.PolicyConditionType;
-import multitenant.security.policy.domain.SessionPolicy;
 import multitenant.security.policy.service.PolicyEvaluationContext;
 import org.springframework.stereotype.Component;
 
@@ -25,40 +26,78 @@ class TimeWindowConditionEvaluator implements PolicyConditionEvaluator {
   }
 
   @Override
-  public boolean matches(SessionPolicy policy, PolicyEvaluationContext context) {
+  public PolicyConditionMatcher compile(String conditionValue) {
     try {
       TimeWindowCondition condition =
-          objectMapper.readValue(policy.getConditionValue(), TimeWindowCondition.class);
+          objectMapper.readValue(conditionValue, TimeWindowCondition.class);
       if (condition.start() == null || condition.end() == null) {
-        return false;
+        return PolicyConditionMatcher.NEVER;
       }
-      ZoneId zone = resolveZone(condition, context.requestDateTime());
       LocalTime start = LocalTime.parse(condition.start());
       LocalTime end = LocalTime.parse(condition.end());
-      LocalTime requestTime = context.requestDateTime().withZoneSameInstant(zone).toLocalTime();
-      if (start.equals(end)) {
-        return true;
-      }
-      if (start.isBefore(end)) {
-        return !requestTime.isBefore(start) && !requestTime.isAfter(end);
-      }
-      return !requestTime.isAfter(end) || !requestTime.isBefore(start);
+      return new TimeWindowMatcher(start, end, resolveZone(condition.zone()));
     } catch (Exception ex) {
-      return false;
+      return PolicyConditionMatcher.NEVER;
     }
   }
 
-  private ZoneId resolveZone(TimeWindowCondition condition, ZonedDateTime reference) {
-    if (condition.zone() == null || condition.zone().isBlank()) {
-      return reference.getZone();
+  private ZoneId resolveZone(String zone) {
+    if (zone == null || zone.isBlank()) {
+      return null;
     }
     try {
-      return ZoneId.of(condition.zone());
+      return ZoneId.of(zone);
     } catch (DateTimeException ex) {
-      return reference.getZone();
+      return null;
     }
   }
 
   private record TimeWindowCondition(String start, String end, String zone) {
   }
+
+  /**
+   * zone 이 null 이면 요청 시각의 시간대를 그대로 사용한다.
+   */
+  private record TimeWindowMatcher(LocalTime start, LocalTime end, ZoneId zone)
+      implements PolicyConditionMatcher {
+
+    @Override
+    public boolean matches(PolicyEvaluationContext context) {
+      if (context.requestDateTime() == null) {
+        return false;
+      }
+      if (start.equals(end)) {
+        return true;
+      }
+      LocalTime requestTime = zone == null
+          ? context.requestDateTime().toLocalTime()
+          : context.requestDateTime().withZoneSameInstant(zone).toLocalTime();
+      if (start.isBefore(end)) {
+        return !requestTime.isBefore(start) && !requestTime.isAfter(end);
+      }
+      return !requestTime.isAfter(end) || !requestTime.isBefore(start);
+    }
+
+    @Override
+    public Instant nextTransitionAfter(ZonedDateTime requestDateTime) {
+      if (start.equals(end)) {
+        return null;
+      }
+      ZonedDateTime local = zone == null ? requestDateTime
+          : requestDateTime.withZoneSameInstant(zone);
+      // 종료 시각까지 포함되므로 결과가 바뀌는 시점은 종료 시각 직후이다.
+      Instant enter = nextOccurrence(local, start);
+      Instant leave = nextOccurrence(local, end.plusNanos(1));
+      return enter.isBefore(leave) ? enter : leave;
+    }
+
+    private Instant nextOccurrence(ZonedDateTime local, LocalTime time) {
+      LocalDate date = local.toLocalDate();
+      ZonedDateTime candidate = ZonedDateTime.of(date, time, local.getZone());
+      if (!candidate.isAfter(local)) {
+        candidate = ZonedDateTime.of(date.plusDays(1), time, local.getZone());
+      }
+      return candidate.toInstant();
+    }
+  }
 }
@@ -0,0 +1,23 @@
+package multitenant.security.policy.config;
+
+import multitenant.security.policy.service.TenantPolicySnapshotSync;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class TenantPolicySyncConfig {
+
+  @Bean
+  public RedisMessageListenerContainer tenantPolicyListenerContainer(
+      RedisConnectionFactory redisConnectionFactory,
+      TenantPolicySnapshotSync tenantPolicySnapshotSync) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(tenantPolicySnapshotSync,
+        new ChannelTopic(tenantPolicySnapshotSync.getChannel()));
+    return container;
+  }
+}
@@ -0,0 +1,81 @@
+package multitenant.security.policy.domain;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public final class PolicyScopeIndex {
+
+  private static final PolicyScopeIndex EMPTY = new PolicyScopeIndex(
+      new EnumMap<>(PolicyScopeType.class), new EnumMap<>(PolicyScopeType.class));
+
+  private final Map<PolicyScopeType, Set<String>> includes;
+  private final Map<PolicyScopeType, Set<String>> excludes;
+
+  private PolicyScopeIndex(Map<PolicyScopeType, Set<String>> includes,
+      Map<PolicyScopeType, Set<String>> excludes) {
+    this.includes = includes;
+    this.excludes = excludes;
+  }
+
+  public static PolicyScopeIndex of(Collection<SessionPolicyScope> scopes) {
+    if (scopes == null || scopes.isEmpty()) {
+      return EMPTY;
+    }
+    Map<PolicyScopeType, Set<String>> includes = new EnumMap<>(PolicyScopeType.class);
+    Map<PolicyScopeType, Set<String>> excludes = new EnumMap<>(PolicyScopeType.class);
+    for (SessionPolicyScope scope : scopes) {
+      if (scope.getScopeType() == null || scope.getScopeValue() == null) {
+        continue;
+      }
+      Map<PolicyScopeType, Set<String>> target = scope.isExcluded() ? excludes : includes;
+      target.computeIfAbsent(scope.getScopeType(), type -> new HashSet<>())
+          .add(scope.getScopeValue());
+    }
+    return new PolicyScopeIndex(freeze(includes), freeze(excludes));
+  }
+
+  public Set<String> includes(PolicyScopeType scopeType) {
+    return includes.getOrDefault(scopeType, Set.of());
+  }
+
+  public Set<String> excludes(PolicyScopeType scopeType) {
+    return excludes.getOrDefault(scopeType, Set.of());
+  }
+
+  public boolean includes(PolicyScopeType scopeType, String value) {
+    return value != null && includes(scopeType).contains(value);
+  }
+
+  public boolean excludes(PolicyScopeType scopeType, String value) {
+    return value != null && excludes(scopeType).contains(value);
+  }
+
+  public boolean includesAny(PolicyScopeType scopeType, Collection<String> values) {
+    return containsAny(includes(scopeType), values);
+  }
+
+  public boolean excludesAny(PolicyScopeType scopeType, Collection<String> values) {
+    return containsAny(excludes(scopeType), values);
+  }
+
+  private static boolean containsAny(Set<String> candidates, Collection<String> values) {
+    if (candidates.isEmpty() || values == null) {
+      return false;
+    }
+    for (String value : values) {
+      if (candidates.contains(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Map<PolicyScopeType, Set<String>> freeze(Map<PolicyScopeType, Set<String>> source) {
+    Map<PolicyScopeType, Set<String>> frozen = new EnumMap<>(PolicyScopeType.class);
+    source.forEach((type, values) -> frozen.put(type, Set.copyOf(values)));
+    return frozen;
+  }
+}
@@ -3,6 +3,7 @@ package multitenant.security.policy.domain;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -11,11 +12,13 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "session_policy")
+@EntityListeners(SessionPolicyChangeListener.class)
 public class SessionPolicy {
 
   @Id
@@ -46,6 +49,9 @@ public class SessionPolicy {
       fetch = FetchType.LAZY)
   private Set<SessionPolicyScope> scopes = new LinkedHashSet<>();
 
+  @Transient
+  private volatile PolicyScopeIndex scopeIndex;
+
   public Long getId() {
     return id;
   }
@@ -102,13 +108,24 @@ public class SessionPolicy {
     return scopes;
   }
 
+  public PolicyScopeIndex getScopeIndex() {
+    PolicyScopeIndex index = scopeIndex;
+    if (index == null) {
+      index = PolicyScopeIndex.of(scopes);
+      scopeIndex = index;
+    }
+    return index;
+  }
+
   public void addScope(SessionPolicyScope scope) {
     scopes.add(scope);
     scope.setPolicy(this);
+    scopeIndex = null;
   }
 
   public void removeScope(SessionPolicyScope scope) {
     scopes.remove(scope);
     scope.setPolicy(null);
+    scopeIndex = null;
   }
 }
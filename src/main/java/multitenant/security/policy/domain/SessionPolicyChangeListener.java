@@ -0,0 +1,28 @@
+package multitenant.security.policy.domain;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+public class SessionPolicyChangeListener {
+
+  private final ApplicationEventPublisher eventPublisher;
+
+  public SessionPolicyChangeListener(ApplicationEventPublisher eventPublisher) {
+    this.eventPublisher = eventPublisher;
+  }
+
+  @PostPersist
+  @PostUpdate
+  @PostRemove
+  void onChange(Object entity) {
+    Long policyId = null;
+    if (entity instanceof SessionPolicy policy) {
+      policyId = policy.getId();
+    } else if (entity instanceof SessionPolicyScope scope && scope.getPolicy() != null) {
+      policyId = scope.getPolicy().getId();
+    }
+    eventPublisher.publishEvent(new SessionPolicyChangedEvent(policyId));
+  }
+}
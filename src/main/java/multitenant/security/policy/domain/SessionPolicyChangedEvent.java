@@ -0,0 +1,4 @@
+package multitenant.security.policy.domain;
+
+public record SessionPolicyChangedEvent(Long policyId) {
+}
@@ -2,6 +2,7 @@ package multitenant.security.policy.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -14,6 +15,7 @@ import jakarta.persistence.Table;
 
 @Entity
 @Table(name = "session_policy_scope")
+@EntityListeners(SessionPolicyChangeListener.class)
 public class SessionPolicyScope {
 
   @Id
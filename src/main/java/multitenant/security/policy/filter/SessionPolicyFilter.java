@@ -7,25 +7,32 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.LinkedHashSet;
 import java.util.Locale;
-import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
+import multitenant.security.policy.condition.IpAddressLiterals;
 import multitenant.security.policy.service.PolicyEvaluationContext;
 import multitenant.security.policy.service.PolicyEvaluationResult;
 import multitenant.security.policy.service.SessionPolicyService;
+import multitenant.security.session.TenantSessionContext;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
+import multitenant.security.sessionlimit.service.SessionEvictionQueue;
 import multitenant.security.sessionlimit.service.SessionLimitSettings;
+import multitenant.security.sessionlimit.service.SessionRegistration;
+import multitenant.security.sessionlimit.service.SessionRotationCounter;
 import multitenant.security.sessionlimit.service.TenantSessionLimitService;
+import multitenant.security.sessionlimit.service.TenantSessionRegistry;
 import multitenant.security.securitylevel.SecurityLevel;
 import multitenant.security.securitylevel.service.SecurityLevelService;
 import org.springframework.session.FindByIndexNameSessionRepository;
-import org.springframework.session.Session;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Component;
@@ -37,24 +44,36 @@ public class SessionPolicyFilter extends OncePerRequestFilter {
   public static final String SESSION_POLICY_ID_ATTR = "sessionPolicy:lastAppliedId";
   public static final String SESSION_POLICY_EFFECT_ATTR = "sessionPolicy:lastEffect";
   public static final String SESSION_SECURITY_LEVEL_ATTR = "sessionSecurity:level";
+  public static final String SESSION_ROTATED_AT_ATTR = "sessionRotation:lastRotatedAt";
+  public static final String REQUEST_ELIDED_WRITES_ATTR =
+      SessionPolicyFilter.class.getName() + ".elidedWrites";
   private static final String REQUEST_ROTATED_ATTR =
       SessionPolicyFilter.class.getName() + ".rotated";
+  // 유휴 만료가 없는 세션의 요청 카운터 보관 시간.
+  private static final Duration DEFAULT_COUNTER_TTL = Duration.ofDays(1);
 
   private final SessionPolicyService sessionPolicyService;
   private final SecurityLevelService securityLevelService;
   private final TenantSessionLimitService tenantSessionLimitService;
-  private final FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+  private final TenantSessionRegistry tenantSessionRegistry;
+  private final SessionEvictionQueue sessionEvictionQueue;
+  private final SessionRotationCounter sessionRotationCounter;
   private final Clock clock;
+  private final LongAdder elidedSessionWrites = new LongAdder();
 
   public SessionPolicyFilter(SessionPolicyService sessionPolicyService,
       SecurityLevelService securityLevelService,
       TenantSessionLimitService tenantSessionLimitService,
-      FindByIndexNameSessionRepository<? extends Session> sessionRepository,
+      TenantSessionRegistry tenantSessionRegistry,
+      SessionEvictionQueue sessionEvictionQueue,
+      SessionRotationCounter sessionRotationCounter,
       Clock clock) {
     this.sessionPolicyService = sessionPolicyService;
     this.securityLevelService = securityLevelService;
     this.tenantSessionLimitService = tenantSessionLimitService;
-    this.sessionRepository = sessionRepository;
+    this.tenantSessionRegistry = tenantSessionRegistry;
+    this.sessionEvictionQueue = sessionEvictionQueue;
+    this.sessionRotationCounter = sessionRotationCounter;
     this.clock = clock;
   }
 
@@ -63,20 +82,36 @@ public class SessionPolicyFilter extends OncePerRequestFilter {
       FilterChain filterChain) throws ServletException, IOException {
     HttpSession session = request.getSession(false);
     if (session != null) {
-      rotateSessionId(request, session);
-      PolicyEvaluationContext context = buildContext(request, session);
-      PolicyEvaluationResult result = sessionPolicyService.evaluate(context);
-      session.setAttribute(SESSION_POLICY_ID_ATTR, result.policyId());
-      session.setAttribute(SESSION_POLICY_EFFECT_ATTR, result.effect());
-      applySecurityLevel(session, context);
-      applySessionLimits(session, context);
-      if (!result.allowed()) {
-        throw new AccessDeniedException("Access blocked by session policy");
+      SessionWrites writes = new SessionWrites(session);
+      try {
+        PolicyEvaluationContext context = buildContext(request, session);
+        PolicyEvaluationResult result = sessionPolicyService.evaluate(context);
+        writes.setAttribute(SESSION_POLICY_ID_ATTR, result.policyId());
+        writes.setAttribute(SESSION_POLICY_EFFECT_ATTR, result.effect());
+        Object previousLevel = session.getAttribute(SESSION_SECURITY_LEVEL_ATTR);
+        SecurityLevel level = applySecurityLevel(writes, context);
+        SessionLimitSettings settings = resolveSessionLimits(context);
+        String replacedSessionId = rotateSessionIdIfRequired(request, writes, settings,
+            previousLevel, level);
+        applySessionLimits(writes, context, settings, replacedSessionId);
+        if (!result.allowed()) {
+          throw new AccessDeniedException("Access blocked by session policy");
+        }
+      } finally {
+        request.setAttribute(REQUEST_ELIDED_WRITES_ATTR, writes.elided());
+        elidedSessionWrites.add(writes.elided());
       }
     }
     filterChain.doFilter(request, response);
   }
 
+  /**
+   * 값이 바뀌지 않아 생략된 세션 쓰기(HSET 델타)의 누적 건수.
+   */
+  public long getElidedSessionWriteCount() {
+    return elidedSessionWrites.sum();
+  }
+
   @Override
   protected boolean shouldNotFilter(HttpServletRequest request) {
     String path = request.getServletPath();
@@ -87,18 +122,20 @@ public class SessionPolicyFilter extends OncePerRequestFilter {
   }
 
   private PolicyEvaluationContext buildContext(HttpServletRequest request, HttpSession session) {
+    // 묶음 속성 하나만 읽어 세션의 다른 값(SecurityContext 등)은 건드리지 않는다.
+    TenantSessionContext stored = TenantSessionContext.read(session);
     String tenantId = firstNonBlank(
-        attributeAsString(session.getAttribute("tenantId")),
+        stored == null ? null : stored.tenantId(),
         request.getHeader("X-Tenant-Id"));
     String userId = firstNonBlank(
-        attributeAsString(session.getAttribute("userId")),
+        stored == null ? null : stored.userId(),
         request.getHeader("X-User-Id"));
-    Set<String> groupIds = resolveGroups(session.getAttribute("groupIds"),
+    Set<String> groupIds = resolveGroups(stored == null ? null : stored.groupIds(),
         request.getHeader("X-Group-Ids"));
-    String clientIp = firstNonBlank(attributeAsString(session.getAttribute("clientIp")),
+    String clientIp = firstNonBlank(stored == null ? null : stored.clientIp(),
         resolveClientIp(request));
     String country = firstNonBlank(
-        attributeAsString(session.getAttribute("countryCode")),
+        stored == null ? null : stored.countryCode(),
         request.getHeader("X-Location-Country"));
     if (country != null) {
       country = country.trim().toUpperCase(Locale.ROOT);
@@ -107,32 +144,42 @@ public class SessionPolicyFilter extends OncePerRequestFilter {
         ZonedDateTime.now());
   }
 
-  private void applySecurityLevel(HttpSession session, PolicyEvaluationContext context) {
+  private SecurityLevel applySecurityLevel(SessionWrites writes,
+      PolicyEvaluationContext context) {
     if (context.tenantId() == null || context.tenantId().isBlank()
         || context.userId() == null || context.userId().isBlank()) {
-      session.setAttribute(SESSION_SECURITY_LEVEL_ATTR, SecurityLevel.LOW);
-      return;
+      writes.setAttribute(SESSION_SECURITY_LEVEL_ATTR, SecurityLevel.LOW);
+      return SecurityLevel.LOW;
     }
     SecurityLevel level = securityLevelService.resolveSecurityLevel(context.tenantId(),
         context.userId());
-    session.setAttribute(SESSION_SECURITY_LEVEL_ATTR, level);
+    writes.setAttribute(SESSION_SECURITY_LEVEL_ATTR, level);
     if (level == SecurityLevel.HIGH) {
       throw new AccessDeniedException("Access blocked due to high security risk level");
     }
+    return level;
   }
 
-  private void applySessionLimits(HttpSession session, PolicyEvaluationContext context) {
+  private SessionLimitSettings resolveSessionLimits(PolicyEvaluationContext context) {
     if (context.tenantId() == null || context.tenantId().isBlank()) {
+      return null;
+    }
+    return tenantSessionLimitService.resolveForTenant(context.tenantId().trim());
+  }
+
+  private void applySessionLimits(SessionWrites writes, PolicyEvaluationContext context,
+      SessionLimitSettings settings, String replacedSessionId) {
+    if (settings == null) {
       return;
     }
+    HttpSession session = writes.session();
     String tenantId = context.tenantId().trim();
-    SessionLimitSettings settings = tenantSessionLimitService.resolveForTenant(tenantId);
 
     if (settings.maxIdle().isZero()) {
-      session.setMaxInactiveInterval(-1);
+      writes.setMaxInactiveInterval(-1);
     } else if (settings.hasIdleLimit()) {
       long idleSeconds = Math.min(Integer.MAX_VALUE, Math.max(1, settings.maxIdle().getSeconds()));
-      session.setMaxInactiveInterval((int) idleSeconds);
+      writes.setMaxInactiveInterval((int) idleSeconds);
     }
 
     if (settings.hasDurationLimit()) {
@@ -144,59 +191,84 @@ public class SessionPolicyFilter extends OncePerRequestFilter {
       }
     }
 
-    if (!settings.hasMaxSessionsLimit()) {
-      return;
-    }
-
-    session.setAttribute(TenantSessionLimitService.SESSION_INDEX_KEY_ATTRIBUTE, tenantId);
-    Map<String, ? extends Session> indexedSessions = sessionRepository
-        .findByIndexNameAndIndexValue(TenantSessionLimitService.SESSION_INDEX_KEY_ATTRIBUTE,
-            tenantId);
-
-    if (indexedSessions == null) {
-      return;
+    // 이전 버전은 주체 인덱스에 테넌트 ID 를 넣어 테넌트 전체가 하나의 인덱스 집합이 되었으므로 정리한다.
+    String principalIndex = FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
+    if (tenantId.equals(session.getAttribute(principalIndex))) {
+      session.removeAttribute(principalIndex);
     }
 
-    boolean currentRegistered = indexedSessions.containsKey(session.getId());
-    int expectedSize = indexedSessions.size() + (currentRegistered ? 0 : 1);
-    if (expectedSize <= settings.maxSessions()) {
+    if (!settings.hasAnySessionCountLimit()) {
       return;
     }
 
-    int sessionsToRemove = expectedSize - settings.maxSessions();
-    var orderedSessions = indexedSessions.entrySet().stream()
-        .sorted(Comparator.comparing(entry -> entry.getValue().getLastAccessedTime()))
-        .toList();
-    for (var entry : orderedSessions) {
-      String sessionId = entry.getKey();
-      if (sessionId.equals(session.getId())) {
-        continue;
-      }
-      sessionRepository.deleteById(sessionId);
-      sessionsToRemove--;
-      if (sessionsToRemove <= 0) {
-        break;
-      }
-    }
-
-    if (sessionsToRemove > 0) {
+    SessionRegistration registration = tenantSessionRegistry.register(tenantId, context.userId(),
+        session.getId(), replacedSessionId, settings);
+    if (!registration.accepted()) {
       session.invalidate();
       throw new AccessDeniedException("Maximum session count exceeded");
     }
+    sessionEvictionQueue.enqueue(registration.evictedSessionIds());
   }
 
-  private void rotateSessionId(HttpServletRequest request, HttpSession session) {
-    if (request.getAttribute(REQUEST_ROTATED_ATTR) != null) {
-      return;
+  private String rotateSessionIdIfRequired(HttpServletRequest request, SessionWrites writes,
+      SessionLimitSettings settings, Object previousLevel, SecurityLevel level) {
+    if (settings == null || request.getAttribute(REQUEST_ROTATED_ATTR) != null) {
+      return null;
     }
+    // 세션 ID 변경은 Redis 에서 세션 해시와 만료/인덱스 키 RENAME 이 함께 일어나므로 필요한 경우에만 수행한다.
+    boolean rotate = switch (settings.rotationStrategy()) {
+      case ON_LOGIN -> false;
+      case ON_SECURITY_LEVEL_ESCALATION -> previousLevel instanceof SecurityLevel previous
+          && level.compareTo(previous) > 0;
+      case INTERVAL -> isRotationIntervalElapsed(writes, settings);
+    };
+    if (!rotate) {
+      return null;
+    }
+    String previousId = writes.session().getId();
     request.setAttribute(REQUEST_ROTATED_ATTR, Boolean.TRUE);
     request.changeSessionId();
+    if (settings.rotationStrategy() == SessionRotationStrategy.INTERVAL) {
+      if (settings.hasRotationInterval()) {
+        writes.setAttribute(SESSION_ROTATED_AT_ATTR, clock.millis());
+      }
+      if (settings.hasRotationRequestCount()) {
+        sessionRotationCounter.reset(previousId);
+      }
+    }
+    return previousId;
+  }
+
+  private boolean isRotationIntervalElapsed(SessionWrites writes,
+      SessionLimitSettings settings) {
+    boolean elapsed = false;
+    if (settings.hasRotationInterval()) {
+      Object rotatedAt = writes.getAttribute(SESSION_ROTATED_AT_ATTR);
+      long base = rotatedAt instanceof Long millis ? millis
+          : writes.session().getCreationTime();
+      Instant due = Instant.ofEpochMilli(base).plus(settings.rotationInterval());
+      elapsed = !clock.instant().isBefore(due);
+    }
+    if (settings.hasRotationRequestCount() && !elapsed) {
+      // 요청마다 세션을 저장하지 않도록 요청 수는 세션 밖의 카운터로 센다.
+      HttpSession session = writes.session();
+      Duration ttl = session.getMaxInactiveInterval() > 0
+          ? Duration.ofSeconds(session.getMaxInactiveInterval()) : DEFAULT_COUNTER_TTL;
+      elapsed = sessionRotationCounter.increment(session.getId(), ttl)
+          >= settings.rotationRequestCount();
+    }
+    return elapsed;
   }
 
   private String resolveClientIp(HttpServletRequest request) {
     String forwarded = request.getHeader("X-Forwarded-For");
     if (forwarded != null && !forwarded.isBlank()) {
-      return forwarded.split(",")[0].trim();
+      int comma = forwarded.indexOf(',');
+      String candidate = (comma < 0 ? forwarded : forwarded.substring(0, comma)).trim();
+      // 리터럴이 아닌 값은 DNS 조회 대상이 되지 않도록 쓰지 않고 연결 주소를 사용한다.
+      if (IpAddressLiterals.isValid(candidate)) {
+        return candidate;
+      }
     }
     return request.getRemoteAddr();
   }
@@ -237,4 +309,45 @@ public class SessionPolicyFilter extends OncePerRequestFilter {
     }
     return null;
   }
+
+  /**
+   * 현재 값과 다른 경우에만 세션에 기록해 Spring Session 이 Redis 로 보내는 델타를 줄인다.
+   */
+  private static final class SessionWrites {
+
+    private final HttpSession session;
+    private int elided;
+
+    private SessionWrites(HttpSession session) {
+      this.session = session;
+    }
+
+    HttpSession session() {
+      return session;
+    }
+
+    Object getAttribute(String name) {
+      return session.getAttribute(name);
+    }
+
+    void setAttribute(String name, Object value) {
+      if (Objects.equals(session.getAttribute(name), value)) {
+        elided++;
+        return;
+      }
+      session.setAttribute(name, value);
+    }
+
+    void setMaxInactiveInterval(int interval) {
+      if (session.getMaxInactiveInterval() == interval) {
+        elided++;
+        return;
+      }
+      session.setMaxInactiveInterval(interval);
+    }
+
+    int elided() {
+      return elided;
+    }
+  }
 }
@@ -0,0 +1,85 @@
+package multitenant.security.policy.service;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * 요청 시각을 제외한 평가 컨텍스트가 같으면 결과도 같다는 점을 이용해, 테넌트 평가 계획이 바뀌거나 다음
+ * TIME_WINDOW 경계에 도달할 때까지 평가 결과를 재사용한다. 항목 수가 상한에 이르면 가장 오래 사용되지
+ * 않은 항목부터 제거한다.
+ */
+final class PolicyDecisionCache {
+
+  private final int maxEntries;
+  // 접근 순서 LinkedHashMap 은 조회도 구조를 바꾸므로 모든 접근을 동기화한다. 평가 자체는 잠금 밖에서 한다.
+  private final Map<Fingerprint, CachedDecision> decisions;
+
+  PolicyDecisionCache(int maxEntries) {
+    this.maxEntries = Math.max(0, maxEntries);
+    this.decisions = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Fingerprint, CachedDecision> eldest) {
+        return size() > PolicyDecisionCache.this.maxEntries;
+      }
+    };
+  }
+
+  PolicyEvaluationResult evaluate(TenantPolicyPlan plan, PolicyEvaluationContext context,
+      Supplier<PolicyEvaluationResult> evaluation) {
+    ZonedDateTime requestDateTime = context.requestDateTime();
+    if (maxEntries == 0 || requestDateTime == null) {
+      return evaluation.get();
+    }
+    Fingerprint fingerprint = Fingerprint.of(context);
+    Instant now = requestDateTime.toInstant();
+    CachedDecision cached;
+    synchronized (decisions) {
+      cached = decisions.get(fingerprint);
+    }
+    if (cached != null && cached.isValidFor(plan, now)) {
+      return cached.result();
+    }
+    PolicyEvaluationResult result = evaluation.get();
+    CachedDecision decision =
+        new CachedDecision(plan, result, now, plan.stableUntil(requestDateTime));
+    synchronized (decisions) {
+      decisions.put(fingerprint, decision);
+    }
+    return result;
+  }
+
+  void clear() {
+    synchronized (decisions) {
+      decisions.clear();
+    }
+  }
+
+  int size() {
+    synchronized (decisions) {
+      return decisions.size();
+    }
+  }
+
+  private record Fingerprint(String tenantId, String userId, Set<String> groupIds,
+      String clientIp, String countryCode, ZoneId zone) {
+
+    static Fingerprint of(PolicyEvaluationContext context) {
+      return new Fingerprint(context.tenantId(), context.userId(), context.groupIds(),
+          context.clientIp(), context.countryCode(), context.requestDateTime().getZone());
+    }
+  }
+
+  private record CachedDecision(TenantPolicyPlan plan, PolicyEvaluationResult result,
+      Instant validFrom, Instant validUntil) {
+
+    boolean isValidFor(TenantPolicyPlan currentPlan, Instant now) {
+      return plan == currentPlan && !now.isBefore(validFrom)
+          && (validUntil == null || now.isBefore(validUntil));
+    }
+  }
+}
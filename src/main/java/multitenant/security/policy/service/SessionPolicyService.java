@@ -3,26 +3,33 @@ package multitenant.security.policy.service;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import multitenant.security.policy.condition.PolicyConditionEvaluator;
+import multitenant.security.policy.condition.PolicyConditionMatcher;
 import multitenant.security.policy.domain.PolicyConditionType;
-import multitenant.security.policy.domain.PolicyEffect;
-import multitenant.security.policy.domain.PolicyScopeType;
 import multitenant.security.policy.domain.SessionPolicy;
-import multitenant.security.policy.domain.SessionPolicyScope;
-import multitenant.security.policy.repository.SessionPolicyRepository;
+import multitenant.security.policy.domain.SessionPolicyChangedEvent;
+import multitenant.security.policy.service.TenantPolicySnapshotCache.TenantPolicySnapshot;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 @Service
 public class SessionPolicyService {
 
-  private final SessionPolicyRepository sessionPolicyRepository;
+  private final TenantPolicySnapshotCache snapshotCache;
   private final Map<PolicyConditionType, PolicyConditionEvaluator> evaluatorByType;
+  private final Map<Long, CompiledCondition> compiledConditions = new ConcurrentHashMap<>();
+  private final Map<String, TenantPolicyPlan> plans = new ConcurrentHashMap<>();
+  private final PolicyDecisionCache decisionCache;
 
-  public SessionPolicyService(SessionPolicyRepository sessionPolicyRepository,
-      List<PolicyConditionEvaluator> evaluators) {
-    this.sessionPolicyRepository = sessionPolicyRepository;
+  public SessionPolicyService(TenantPolicySnapshotCache snapshotCache,
+      List<PolicyConditionEvaluator> evaluators,
+      @Value("${session.policy.decision-cache.max-entries:10000}") int decisionCacheMaxEntries) {
+    this.snapshotCache = snapshotCache;
+    this.decisionCache = new PolicyDecisionCache(decisionCacheMaxEntries);
     this.evaluatorByType = new EnumMap<>(PolicyConditionType.class);
     evaluators.forEach(evaluator -> evaluatorByType.putIfAbsent(
         resolveType(evaluator), evaluator));
@@ -32,72 +39,52 @@ public class SessionPolicyService {
     if (context.tenantId() == null || context.tenantId().isBlank()) {
       return PolicyEvaluationResult.allow(null);
     }
-    List<SessionPolicy> policies = sessionPolicyRepository.findActiveForTenant(context.tenantId());
-    for (SessionPolicy policy : policies) {
-      if (!scopeMatches(policy, context)) {
-        continue;
-      }
-      PolicyConditionEvaluator evaluator = evaluatorByType.get(policy.getConditionType());
-      if (evaluator == null) {
-        continue;
-      }
-      if (!evaluator.matches(policy, context)) {
-        continue;
-      }
-      if (policy.getEffect() == PolicyEffect.DENY) {
-        return PolicyEvaluationResult.deny(policy);
-      }
-      return PolicyEvaluationResult.allow(policy);
-    }
-    return PolicyEvaluationResult.allow(null);
+    TenantPolicyPlan plan = plan(context.tenantId());
+    return decisionCache.evaluate(plan, context, () -> plan.evaluate(context));
   }
 
-  private boolean scopeMatches(SessionPolicy policy, PolicyEvaluationContext context) {
-    Set<String> tenantScopes = collectScopeValues(policy, PolicyScopeType.TENANT, false);
-    if (tenantScopes.isEmpty() || context.tenantId() == null) {
-      return false;
-    }
-    if (!tenantScopes.contains(context.tenantId())) {
-      return false;
-    }
-
-    Set<String> excludedTenants = collectScopeValues(policy, PolicyScopeType.TENANT, true);
-    if (!excludedTenants.isEmpty() && excludedTenants.contains(context.tenantId())) {
-      return false;
-    }
-
-    Set<String> userScopes = collectScopeValues(policy, PolicyScopeType.USER, false);
-    if (!userScopes.isEmpty()) {
-      if (!context.hasUser() || !userScopes.contains(context.userId())) {
-        return false;
-      }
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+  public void onPolicyChanged(SessionPolicyChangedEvent event) {
+    plans.clear();
+    decisionCache.clear();
+    if (event.policyId() == null) {
+      compiledConditions.clear();
+    } else {
+      compiledConditions.remove(event.policyId());
     }
+  }
 
-    Set<String> excludedUsers = collectScopeValues(policy, PolicyScopeType.USER, true);
-    if (!excludedUsers.isEmpty() && context.hasUser() && excludedUsers.contains(context.userId())) {
-      return false;
+  private TenantPolicyPlan plan(String tenantId) {
+    TenantPolicySnapshot snapshot = snapshotCache.snapshot(tenantId);
+    TenantPolicyPlan plan = plans.get(tenantId);
+    // 스냅샷이 교체되면 동일 인스턴스가 아니므로 계획을 다시 컴파일한다.
+    if (plan == null || plan.snapshot() != snapshot) {
+      plan = TenantPolicyPlan.compile(snapshot, this::compiledMatcher);
+      plans.put(tenantId, plan);
     }
+    return plan;
+  }
 
-    Set<String> groupScopes = collectScopeValues(policy, PolicyScopeType.GROUP, false);
-    if (!groupScopes.isEmpty()) {
-      if (!context.hasGroups() || context.groupIds().stream().noneMatch(groupScopes::contains)) {
-        return false;
-      }
+  private PolicyConditionMatcher compiledMatcher(SessionPolicy policy) {
+    if (policy.getId() == null) {
+      return compile(policy);
     }
-    Set<String> excludedGroups = collectScopeValues(policy, PolicyScopeType.GROUP, true);
-    if (!excludedGroups.isEmpty() && context.hasGroups()
-        && context.groupIds().stream().anyMatch(excludedGroups::contains)) {
-      return false;
+    CompiledCondition cached = compiledConditions.get(policy.getId());
+    if (cached != null && cached.isCompiledFrom(policy)) {
+      return cached.matcher();
     }
-    return true;
+    PolicyConditionMatcher matcher = compile(policy);
+    compiledConditions.put(policy.getId(), new CompiledCondition(policy.getConditionType(),
+        policy.getConditionValue(), matcher));
+    return matcher;
   }
 
-  private Set<String> collectScopeValues(SessionPolicy policy, PolicyScopeType scopeType,
-      boolean excluded) {
-    return policy.getScopes().stream()
-        .filter(scope -> scope.getScopeType() == scopeType && scope.isExcluded() == excluded)
-        .map(SessionPolicyScope::getScopeValue)
-        .collect(Collectors.toSet());
+  private PolicyConditionMatcher compile(SessionPolicy policy) {
+    PolicyConditionEvaluator evaluator = evaluatorByType.get(policy.getConditionType());
+    if (evaluator == null || policy.getConditionValue() == null) {
+      return PolicyConditionMatcher.NEVER;
+    }
+    return evaluator.compile(policy.getConditionValue());
   }
 
   private PolicyConditionType resolveType(PolicyConditionEvaluator evaluator) {
@@ -108,4 +95,16 @@ public class SessionPolicyService {
     }
     throw new IllegalArgumentException("No supported type for evaluator " + evaluator.getClass());
   }
+
+  /**
+   * 정책 엔티티에는 버전 컬럼이 없으므로 조건 유형과 원문 값을 버전으로 사용한다.
+   */
+  private record CompiledCondition(PolicyConditionType conditionType, String conditionValue,
+      PolicyConditionMatcher matcher) {
+
+    boolean isCompiledFrom(SessionPolicy policy) {
+      return conditionType == policy.getConditionType()
+          && Objects.equals(conditionValue, policy.getConditionValue());
+    }
+  }
 }
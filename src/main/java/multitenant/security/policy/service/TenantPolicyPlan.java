@@ -0,0 +1,164 @@
+package multitenant.security.policy.service;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import multitenant.security.policy.condition.PolicyConditionMatcher;
+import multitenant.security.policy.domain.PolicyConditionType;
+import multitenant.security.policy.domain.PolicyEffect;
+import multitenant.security.policy.domain.PolicyScopeIndex;
+import multitenant.security.policy.domain.PolicyScopeType;
+import multitenant.security.policy.domain.SessionPolicy;
+import multitenant.security.policy.service.TenantPolicySnapshotCache.TenantPolicySnapshot;
+
+/**
+ * 테넌트의 우선순위 정렬된 정책 목록을 평가 계획으로 컴파일한 결과. 사용자/그룹 범위 정책은 역색인으로
+ * 후보에서 걸러내고, 요청에 필요한 입력(IP, 국가)이 없는 조건 유형은 한 번에 제외한다. 후보는 항상
+ * 원래 우선순위 순서로 평가하므로 첫 번째로 일치한 정책이 결과를 결정한다.
+ */
+final class TenantPolicyPlan {
+
+  private final TenantPolicySnapshot snapshot;
+  private final List<PlannedPolicy> policies;
+  private final BitSet unrestricted;
+  private final Map<String, BitSet> byUser;
+  private final Map<String, BitSet> byGroup;
+  private final BitSet requiresClientIp;
+  private final BitSet requiresCountry;
+  private final List<PolicyConditionMatcher> timeSensitiveMatchers;
+
+  private TenantPolicyPlan(TenantPolicySnapshot snapshot, List<PlannedPolicy> policies,
+      BitSet unrestricted, Map<String, BitSet> byUser, Map<String, BitSet> byGroup,
+      BitSet requiresClientIp, BitSet requiresCountry,
+      List<PolicyConditionMatcher> timeSensitiveMatchers) {
+    this.snapshot = snapshot;
+    this.policies = policies;
+    this.unrestricted = unrestricted;
+    this.byUser = byUser;
+    this.byGroup = byGroup;
+    this.requiresClientIp = requiresClientIp;
+    this.requiresCountry = requiresCountry;
+    this.timeSensitiveMatchers = timeSensitiveMatchers;
+  }
+
+  static TenantPolicyPlan compile(TenantPolicySnapshot snapshot,
+      Function<SessionPolicy, PolicyConditionMatcher> matcherFactory) {
+    List<PlannedPolicy> policies = new ArrayList<>();
+    BitSet unrestricted = new BitSet();
+    Map<String, BitSet> byUser = new HashMap<>();
+    Map<String, BitSet> byGroup = new HashMap<>();
+    BitSet requiresClientIp = new BitSet();
+    BitSet requiresCountry = new BitSet();
+    List<PolicyConditionMatcher> timeSensitiveMatchers = new ArrayList<>();
+    for (SessionPolicy policy : snapshot.policies()) {
+      PolicyScopeIndex scopeIndex = policy.getScopeIndex();
+      PolicyConditionMatcher matcher = matcherFactory.apply(policy);
+      if (matcher == PolicyConditionMatcher.NEVER
+          || !scopeIndex.includes(PolicyScopeType.TENANT, snapshot.tenantId())
+          || scopeIndex.excludes(PolicyScopeType.TENANT, snapshot.tenantId())) {
+        continue;
+      }
+      int position = policies.size();
+      policies.add(new PlannedPolicy(policy, scopeIndex, matcher));
+      if (!scopeIndex.includes(PolicyScopeType.USER).isEmpty()) {
+        scopeIndex.includes(PolicyScopeType.USER)
+            .forEach(userId -> byUser.computeIfAbsent(userId, key -> new BitSet()).set(position));
+      } else if (!scopeIndex.includes(PolicyScopeType.GROUP).isEmpty()) {
+        scopeIndex.includes(PolicyScopeType.GROUP)
+            .forEach(groupId -> byGroup.computeIfAbsent(groupId, key -> new BitSet()).set(position));
+      } else {
+        unrestricted.set(position);
+      }
+      if (policy.getConditionType() == PolicyConditionType.IP_RANGE) {
+        requiresClientIp.set(position);
+      } else if (policy.getConditionType() == PolicyConditionType.LOCATION) {
+        requiresCountry.set(position);
+      } else if (policy.getConditionType() == PolicyConditionType.TIME_WINDOW) {
+        timeSensitiveMatchers.add(matcher);
+      }
+    }
+    return new TenantPolicyPlan(snapshot, List.copyOf(policies), unrestricted, Map.copyOf(byUser),
+        Map.copyOf(byGroup), requiresClientIp, requiresCountry, List.copyOf(timeSensitiveMatchers));
+  }
+
+  TenantPolicySnapshot snapshot() {
+    return snapshot;
+  }
+
+  /**
+   * 요청 시각만 달라질 때 평가 결과가 유지되는 마지막 시점(배타)을 반환한다. {@code null} 이면 시각과
+   * 무관하게 결과가 유지된다.
+   */
+  Instant stableUntil(ZonedDateTime requestDateTime) {
+    Instant earliest = null;
+    for (PolicyConditionMatcher matcher : timeSensitiveMatchers) {
+      Instant transition = matcher.nextTransitionAfter(requestDateTime);
+      if (transition != null && (earliest == null || transition.isBefore(earliest))) {
+        earliest = transition;
+      }
+    }
+    return earliest;
+  }
+
+  PolicyEvaluationResult evaluate(PolicyEvaluationContext context) {
+    BitSet candidates = candidates(context);
+    for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+      PlannedPolicy planned = policies.get(i);
+      if (!scopeMatches(planned.scopeIndex(), context) || !planned.matcher().matches(context)) {
+        continue;
+      }
+      if (planned.policy().getEffect() == PolicyEffect.DENY) {
+        return PolicyEvaluationResult.deny(planned.policy());
+      }
+      return PolicyEvaluationResult.allow(planned.policy());
+    }
+    return PolicyEvaluationResult.allow(null);
+  }
+
+  private BitSet candidates(PolicyEvaluationContext context) {
+    BitSet candidates = (BitSet) unrestricted.clone();
+    if (context.hasUser()) {
+      BitSet userPolicies = byUser.get(context.userId());
+      if (userPolicies != null) {
+        candidates.or(userPolicies);
+      }
+    }
+    for (String groupId : context.groupIds()) {
+      BitSet groupPolicies = byGroup.get(groupId);
+      if (groupPolicies != null) {
+        candidates.or(groupPolicies);
+      }
+    }
+    if (context.clientIp() == null || context.clientIp().isBlank()) {
+      candidates.andNot(requiresClientIp);
+    }
+    if (context.countryCode() == null || context.countryCode().isBlank()) {
+      candidates.andNot(requiresCountry);
+    }
+    return candidates;
+  }
+
+  private boolean scopeMatches(PolicyScopeIndex index, PolicyEvaluationContext context) {
+    if (!index.includes(PolicyScopeType.USER).isEmpty()
+        && (!context.hasUser() || !index.includes(PolicyScopeType.USER, context.userId()))) {
+      return false;
+    }
+    if (context.hasUser() && index.excludes(PolicyScopeType.USER, context.userId())) {
+      return false;
+    }
+    if (!index.includes(PolicyScopeType.GROUP).isEmpty()
+        && !index.includesAny(PolicyScopeType.GROUP, context.groupIds())) {
+      return false;
+    }
+    return !index.excludesAny(PolicyScopeType.GROUP, context.groupIds());
+  }
+
+  private record PlannedPolicy(SessionPolicy policy, PolicyScopeIndex scopeIndex,
+      PolicyConditionMatcher matcher) {
+  }
+}
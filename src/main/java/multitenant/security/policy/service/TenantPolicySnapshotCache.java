@@ -0,0 +1,69 @@
+package multitenant.security.policy.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import multitenant.security.policy.domain.SessionPolicy;
+import multitenant.security.policy.domain.SessionPolicyChangedEvent;
+import multitenant.security.policy.repository.SessionPolicyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 테넌트별 활성 정책 스냅샷. 이 노드의 변경은 트랜잭션 완료 후 바로, 다른 노드의 변경은
+ * {@link TenantPolicySnapshotSync} 의 Redis 메시지로 비우며, 메시지가 유실되어도 {@code ttl} 이 지나면 다시 읽는다.
+ */
+@Component
+public class TenantPolicySnapshotCache {
+
+  private final SessionPolicyRepository sessionPolicyRepository;
+  private final Clock clock;
+  private final Duration ttl;
+  private final Map<String, TenantPolicySnapshot> snapshots = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
+
+  public TenantPolicySnapshotCache(SessionPolicyRepository sessionPolicyRepository, Clock clock,
+      @Value("${session.policy.snapshot.ttl:PT5M}") Duration ttl) {
+    this.sessionPolicyRepository = sessionPolicyRepository;
+    this.clock = clock;
+    this.ttl = ttl;
+  }
+
+  public TenantPolicySnapshot snapshot(String tenantId) {
+    Instant now = clock.instant();
+    TenantPolicySnapshot cached = snapshots.get(tenantId);
+    if (cached != null && now.isBefore(cached.validUntil())) {
+      return cached;
+    }
+    // 로딩 도중 정책이 변경되면 오래된 스냅샷이 캐시에 남지 않도록 세대 값을 비교한다.
+    long loadedGeneration = generation.get();
+    List<SessionPolicy> policies = sessionPolicyRepository.findActiveForTenant(tenantId);
+    policies.forEach(SessionPolicy::getScopeIndex);
+    TenantPolicySnapshot loaded = new TenantPolicySnapshot(tenantId, List.copyOf(policies),
+        now.plus(ttl));
+    // 비교와 저장을 같은 키 잠금 안에서 해, 그 사이 들어온 무효화가 저장보다 먼저 끝나지 않게 한다.
+    snapshots.compute(tenantId,
+        (key, current) -> generation.get() == loadedGeneration ? loaded : current);
+    return loaded;
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    snapshots.clear();
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+  public void onPolicyChanged(SessionPolicyChangedEvent event) {
+    invalidateAll();
+  }
+
+  public record TenantPolicySnapshot(String tenantId, List<SessionPolicy> policies,
+      Instant validUntil) {
+  }
+}
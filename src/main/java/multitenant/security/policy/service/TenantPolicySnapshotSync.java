@@ -0,0 +1,52 @@
+package multitenant.security.policy.service;
+
+import multitenant.security.policy.domain.SessionPolicyChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 정책 변경을 Redis 채널로 다른 노드에 전파해 테넌트 정책 스냅샷을 비운다.
+ * 평가 계획과 판정 캐시는 스냅샷 인스턴스가 바뀌면 함께 무효화된다.
+ */
+@Component
+public class TenantPolicySnapshotSync implements MessageListener {
+
+  private static final String ALL_POLICIES = "*";
+
+  private final TenantPolicySnapshotCache snapshotCache;
+  private final StringRedisTemplate redisTemplate;
+  private final String channel;
+
+  public TenantPolicySnapshotSync(TenantPolicySnapshotCache snapshotCache,
+      StringRedisTemplate redisTemplate,
+      @Value("${session.policy.sync-channel:octatco:sso:session-policy}") String channel) {
+    this.snapshotCache = snapshotCache;
+    this.redisTemplate = redisTemplate;
+    this.channel = channel;
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+  public void onPolicyChanged(SessionPolicyChangedEvent event) {
+    try {
+      redisTemplate.convertAndSend(channel,
+          event.policyId() == null ? ALL_POLICIES : event.policyId().toString());
+    } catch (DataAccessException ex) {
+      // 전파에 실패해도 다른 노드는 스냅샷 TTL 이 지나면 새 정책을 읽는다.
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    snapshotCache.invalidateAll();
+  }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import jakarta.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.LinkedHashSet;
+import multitenant.security.session.TenantSessionContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 
@@ -17,11 +18,9 @@ public class TenantAuthenticationSuccessHandler implements AuthenticationSuccess
     HttpSession session = request.getSession(true);
     Object principal = authentication.getPrincipal();
     if (principal instanceof TenantUserDetails details) {
-      session.setAttribute("tenantId", details.getTenantId());
-      session.setAttribute("userId", details.getUsername());
-      session.setAttribute("groupIds", new LinkedHashSet<>(details.getGroups()));
-      session.setAttribute("countryCode", details.getCountryCode());
-      session.setAttribute("clientIp", request.getRemoteAddr());
+      new TenantSessionContext(details.getTenantId(), details.getUsername(),
+          new LinkedHashSet<>(details.getGroups()), details.getCountryCode(),
+          request.getRemoteAddr()).store(session);
     }
     response.sendRedirect("/");
   }
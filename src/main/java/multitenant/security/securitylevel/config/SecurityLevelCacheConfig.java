@@ -0,0 +1,25 @@
+package multitenant.security.securitylevel.config;
+
+import multitenant.security.securitylevel.persistence.RedisSecurityLevelStateStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+@ConditionalOnProperty(prefix = "security.level.cache", name = "enabled", havingValue = "true")
+public class SecurityLevelCacheConfig {
+
+  @Bean
+  public RedisMessageListenerContainer securityLevelListenerContainer(
+      RedisConnectionFactory redisConnectionFactory,
+      RedisSecurityLevelStateStore redisSecurityLevelStateStore) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(redisSecurityLevelStateStore,
+        new ChannelTopic(redisSecurityLevelStateStore.getChannel()));
+    return container;
+  }
+}
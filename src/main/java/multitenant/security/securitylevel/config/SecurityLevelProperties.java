@@ -4,6 +4,7 @@ import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 import multitenant.security.securitylevel.SecurityLevel;
+import multitenant.security.securitylevel.persistence.PartitionGranularity;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 @ConfigurationProperties(prefix = "security.level")
@@ -12,7 +13,16 @@ public class SecurityLevelProperties {
   private Duration defaultTtl = Duration.ofMinutes(15);
   private int retentionEvents = 20;
   private Duration retentionWindow = Duration.ofHours(6);
+  private boolean persistDefaultState = false;
+  private int pruneDeleteBatchSize = 500;
+  private int cleanupBatchSize = 1_000;
+  private Duration cleanupTimeBudget = Duration.ofSeconds(10);
+  private String cleanupLockKey = "octatco:sso:security-level:cleanup-lock";
+  private Duration cleanupLockTtl = Duration.ofMinutes(1);
   private Map<String, PolicyRule> policies = new HashMap<>();
+  private Cache cache = new Cache();
+  private Ingestion ingestion = new Ingestion();
+  private Partitioning partitioning = new Partitioning();
 
   public SecurityLevelProperties() {
     policies.put("LOGIN_FAILURE", new PolicyRule(SecurityLevel.MEDIUM, Duration.ofMinutes(30)));
@@ -46,6 +56,57 @@ public class SecurityLevelProperties {
     this.retentionWindow = retentionWindow;
   }
 
+  /**
+   * 상태가 없거나 만료된 사용자의 기본 LOW 상태를 조회 시점에 저장할지 여부. 기본값은 메모리에서만 LOW 로 간주한다.
+   */
+  public boolean isPersistDefaultState() {
+    return persistDefaultState;
+  }
+
+  public void setPersistDefaultState(boolean persistDefaultState) {
+    this.persistDefaultState = persistDefaultState;
+  }
+
+  public int getPruneDeleteBatchSize() {
+    return pruneDeleteBatchSize;
+  }
+
+  public void setPruneDeleteBatchSize(int pruneDeleteBatchSize) {
+    this.pruneDeleteBatchSize = pruneDeleteBatchSize;
+  }
+
+  public int getCleanupBatchSize() {
+    return cleanupBatchSize;
+  }
+
+  public void setCleanupBatchSize(int cleanupBatchSize) {
+    this.cleanupBatchSize = cleanupBatchSize;
+  }
+
+  public Duration getCleanupTimeBudget() {
+    return cleanupTimeBudget;
+  }
+
+  public void setCleanupTimeBudget(Duration cleanupTimeBudget) {
+    this.cleanupTimeBudget = cleanupTimeBudget;
+  }
+
+  public String getCleanupLockKey() {
+    return cleanupLockKey;
+  }
+
+  public void setCleanupLockKey(String cleanupLockKey) {
+    this.cleanupLockKey = cleanupLockKey;
+  }
+
+  public Duration getCleanupLockTtl() {
+    return cleanupLockTtl;
+  }
+
+  public void setCleanupLockTtl(Duration cleanupLockTtl) {
+    this.cleanupLockTtl = cleanupLockTtl;
+  }
+
   public Map<String, PolicyRule> getPolicies() {
     return policies;
   }
@@ -54,6 +115,30 @@ public class SecurityLevelProperties {
     this.policies = policies;
   }
 
+  public Cache getCache() {
+    return cache;
+  }
+
+  public void setCache(Cache cache) {
+    this.cache = cache;
+  }
+
+  public Ingestion getIngestion() {
+    return ingestion;
+  }
+
+  public void setIngestion(Ingestion ingestion) {
+    this.ingestion = ingestion;
+  }
+
+  public Partitioning getPartitioning() {
+    return partitioning;
+  }
+
+  public void setPartitioning(Partitioning partitioning) {
+    this.partitioning = partitioning;
+  }
+
   public PolicyRule policyFor(String actionType) {
     String key = actionType == null ? "UNKNOWN" : actionType.trim().toUpperCase();
     return policies.getOrDefault(key, policies.get("UNKNOWN"));
@@ -61,4 +146,171 @@ public class SecurityLevelProperties {
 
   public record PolicyRule(SecurityLevel level, Duration ttl) {
   }
+
+  /**
+   * Redis 보안 레벨 상태 캐시 설정. 활성화하면 MySQL 은 비동기 기록(write-behind)과 Redis 미스 시 복구에 사용한다.
+   */
+  public static class Cache {
+
+    private boolean enabled = false;
+    private String keyPrefix = "octatco:sso:security-level:";
+    private String channel = "octatco:sso:security-level-changed";
+    private Duration nearTtl = Duration.ofSeconds(5);
+    private int nearMaxEntries = 100_000;
+    private Duration writeBehindInterval = Duration.ofSeconds(1);
+    private int writeBehindBatchSize = 500;
+    private int writeBehindMaxPending = 100_000;
+    private boolean warmUpOnStartup = false;
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public String getKeyPrefix() {
+      return keyPrefix;
+    }
+
+    public void setKeyPrefix(String keyPrefix) {
+      this.keyPrefix = keyPrefix;
+    }
+
+    public String getChannel() {
+      return channel;
+    }
+
+    public void setChannel(String channel) {
+      this.channel = channel;
+    }
+
+    public Duration getNearTtl() {
+      return nearTtl;
+    }
+
+    public void setNearTtl(Duration nearTtl) {
+      this.nearTtl = nearTtl;
+    }
+
+    public int getNearMaxEntries() {
+      return nearMaxEntries;
+    }
+
+    public void setNearMaxEntries(int nearMaxEntries) {
+      this.nearMaxEntries = nearMaxEntries;
+    }
+
+    public Duration getWriteBehindInterval() {
+      return writeBehindInterval;
+    }
+
+    public void setWriteBehindInterval(Duration writeBehindInterval) {
+      this.writeBehindInterval = writeBehindInterval;
+    }
+
+    public int getWriteBehindBatchSize() {
+      return writeBehindBatchSize;
+    }
+
+    public void setWriteBehindBatchSize(int writeBehindBatchSize) {
+      this.writeBehindBatchSize = writeBehindBatchSize;
+    }
+
+    public int getWriteBehindMaxPending() {
+      return writeBehindMaxPending;
+    }
+
+    public void setWriteBehindMaxPending(int writeBehindMaxPending) {
+      this.writeBehindMaxPending = writeBehindMaxPending;
+    }
+
+    public boolean isWarmUpOnStartup() {
+      return warmUpOnStartup;
+    }
+
+    public void setWarmUpOnStartup(boolean warmUpOnStartup) {
+      this.warmUpOnStartup = warmUpOnStartup;
+    }
+  }
+
+  /**
+   * 비동기 이벤트 수집 큐 설정. 큐가 가득 차면 호출 스레드에서 바로 처리한다.
+   * 처리에 {@code maxAttempts} 번 실패한 이벤트는 버리고 집계한다.
+   */
+  public static class Ingestion {
+
+    private int capacity = 10_000;
+    private int batchSize = 500;
+    private int maxAttempts = 5;
+
+    public int getCapacity() {
+      return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+      this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+      return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+      this.batchSize = batchSize;
+    }
+
+    public int getMaxAttempts() {
+      return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+      this.maxAttempts = maxAttempts;
+    }
+  }
+
+  /**
+   * MySQL {@code security_level_event} 시간 범위 파티션 설정. 활성화하면 보관 기간 정리는 DELETE 대신
+   * 파티션 삭제로 수행한다. {@code zone} 은 {@code occurred_at} 이 기록되는 시간대와 같아야 한다.
+   */
+  public static class Partitioning {
+
+    private boolean enabled = false;
+    private PartitionGranularity granularity = PartitionGranularity.DAILY;
+    private int precreate = 3;
+    private String zone = "UTC";
+
+    public boolean isEnabled() {
+      return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+      this.enabled = enabled;
+    }
+
+    public PartitionGranularity getGranularity() {
+      return granularity;
+    }
+
+    public void setGranularity(PartitionGranularity granularity) {
+      this.granularity = granularity;
+    }
+
+    public int getPrecreate() {
+      return precreate;
+    }
+
+    public void setPrecreate(int precreate) {
+      this.precreate = precreate;
+    }
+
+    public String getZone() {
+      return zone;
+    }
+
+    public void setZone(String zone) {
+      this.zone = zone;
+    }
+  }
 }
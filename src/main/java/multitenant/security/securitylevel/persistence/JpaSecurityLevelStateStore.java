@@ -0,0 +1,47 @@
+package multitenant.security.securitylevel.persistence;
+
+import java.time.Instant;
+import java.util.Optional;
+import multitenant.security.securitylevel.SecurityLevelState;
+import multitenant.security.securitylevel.service.SecurityLevelStateStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConditionalOnProperty(prefix = "security.level.cache", name = "enabled", havingValue = "false",
+    matchIfMissing = true)
+public class JpaSecurityLevelStateStore implements SecurityLevelStateStore {
+
+  private final SecurityLevelStateRepository stateRepository;
+
+  public JpaSecurityLevelStateStore(SecurityLevelStateRepository stateRepository) {
+    this.stateRepository = stateRepository;
+  }
+
+  @Override
+  public Optional<SecurityLevelState> find(String tenantId, String userId) {
+    return stateRepository.findById(new SecurityLevelStateId(tenantId, userId))
+        .map(JpaSecurityLevelStateStore::toState);
+  }
+
+  @Override
+  public void save(String tenantId, String userId, SecurityLevelState state) {
+    stateRepository.save(toEntity(tenantId, userId, state));
+  }
+
+  static SecurityLevelStateEntity toEntity(String tenantId, String userId,
+      SecurityLevelState state) {
+    SecurityLevelStateEntity entity = new SecurityLevelStateEntity();
+    entity.setTenantId(tenantId);
+    entity.setUserId(userId);
+    entity.setLevel(state.level());
+    entity.setExpiresAt(state.expiresAt());
+    entity.setScore(state.score());
+    entity.setUpdatedAt(Instant.now());
+    return entity;
+  }
+
+  static SecurityLevelState toState(SecurityLevelStateEntity entity) {
+    return new SecurityLevelState(entity.getLevel(), entity.getExpiresAt(), entity.getScore());
+  }
+}
@@ -0,0 +1,37 @@
+package multitenant.security.securitylevel.persistence;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * {@code security_level_event} 범위 파티션 단위. 파티션 이름은 구간 시작 시각으로 만든다.
+ */
+public enum PartitionGranularity {
+  DAILY(ChronoUnit.DAYS, DateTimeFormatter.ofPattern("'p'yyyyMMdd")),
+  HOURLY(ChronoUnit.HOURS, DateTimeFormatter.ofPattern("'p'yyyyMMddHH"));
+
+  private final ChronoUnit unit;
+  private final DateTimeFormatter nameFormat;
+
+  PartitionGranularity(ChronoUnit unit, DateTimeFormatter nameFormat) {
+    this.unit = unit;
+    this.nameFormat = nameFormat;
+  }
+
+  public LocalDateTime floor(LocalDateTime time) {
+    return time.truncatedTo(unit);
+  }
+
+  public LocalDateTime next(LocalDateTime boundary) {
+    return boundary.plus(1, unit);
+  }
+
+  public LocalDateTime previous(LocalDateTime boundary) {
+    return boundary.minus(1, unit);
+  }
+
+  public String partitionName(LocalDateTime start) {
+    return nameFormat.format(start);
+  }
+}
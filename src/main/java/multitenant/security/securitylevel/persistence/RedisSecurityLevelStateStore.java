@@ -0,0 +1,258 @@
+package multitenant.security.securitylevel.persistence;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import multitenant.security.securitylevel.SecurityLevel;
+import multitenant.security.securitylevel.SecurityLevelState;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import multitenant.security.securitylevel.service.SecurityLevelStateStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보안 레벨 상태를 노드 로컬 near-cache 와 Redis 에 두고 MySQL 에는 비동기로 기록한다.
+ * Redis 키의 TTL 은 상태의 expiresAt 에 맞춘다. 기본 LOW 상태는 키를 만들지 않으므로, 키가 없으면 이 노드에
+ * 아직 기록되지 않은 변경만 확인하고 LOW 로 본다. MySQL 은 읽기 경로에서 조회하지 않으며, Redis flush 나 장애
+ * 조치 후에는 {@link #restoreFromDatabase()} 로 만료되지 않은 상태를 되살린다
+ * ({@code warm-up-on-startup} 이면 기동 시 실행).
+ * 다른 노드의 near-cache 는 Redis 채널로 무효화한다.
+ * 기록 대기열은 {@code write-behind-max-pending} 으로 제한되며, 가득 차면 새 키의 상태는 바로 MySQL 에 기록한다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.level.cache", name = "enabled", havingValue = "true")
+public class RedisSecurityLevelStateStore implements SecurityLevelStateStore, MessageListener,
+    SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(RedisSecurityLevelStateStore.class);
+  private static final String SEPARATOR = "|";
+  // 웹 서버가 요청 처리를 멈춘 뒤(웹 서버 phase 보다 낮게), 데이터소스가 닫히기 전에 남은 쓰기를 기록한다.
+  private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+  private final StringRedisTemplate redisTemplate;
+  private final SecurityLevelStateRepository stateRepository;
+  private final SecurityLevelStateBatchWriter batchWriter;
+  private final SecurityLevelProperties.Cache properties;
+  private final Clock clock;
+  private final Map<String, NearEntry> nearCache = new ConcurrentHashMap<>();
+  private final Map<SecurityLevelStateId, SecurityLevelState> pendingWrites =
+      new ConcurrentHashMap<>();
+  private final LongAdder synchronousWrites = new LongAdder();
+  private volatile boolean running;
+
+  public RedisSecurityLevelStateStore(StringRedisTemplate redisTemplate,
+      SecurityLevelStateRepository stateRepository, SecurityLevelStateBatchWriter batchWriter,
+      SecurityLevelProperties properties, Clock clock) {
+    this.redisTemplate = redisTemplate;
+    this.stateRepository = stateRepository;
+    this.batchWriter = batchWriter;
+    this.properties = properties.getCache();
+    this.clock = clock;
+  }
+
+  @Override
+  public Optional<SecurityLevelState> find(String tenantId, String userId) {
+    String key = key(tenantId, userId);
+    Instant now = clock.instant();
+    NearEntry cached = nearCache.get(key);
+    if (cached != null && now.isBefore(cached.validUntil())) {
+      return Optional.ofNullable(cached.state());
+    }
+    String value = redisTemplate.opsForValue().get(key);
+    SecurityLevelState state = value != null ? decode(value)
+        : pendingWrites.get(new SecurityLevelStateId(tenantId, userId));
+    if (state != null && state.isExpired(now)) {
+      state = null;
+    }
+    remember(key, state, now);
+    return Optional.ofNullable(state);
+  }
+
+  @Override
+  public void save(String tenantId, String userId, SecurityLevelState state) {
+    String key = key(tenantId, userId);
+    Instant now = clock.instant();
+    // Redis 서버 시각과 무관하도록 애플리케이션 시계 기준 남은 시간을 상대 TTL 로 지정한다.
+    Duration ttl = Duration.between(now, state.expiresAt());
+    if (ttl.isNegative() || ttl.isZero()) {
+      redisTemplate.delete(key);
+      remember(key, null, now);
+    } else {
+      redisTemplate.opsForValue().set(key, encode(state), ttl);
+      remember(key, state, now);
+    }
+    enqueueWrite(new SecurityLevelStateId(tenantId, userId), state);
+    publishInvalidation(key);
+  }
+
+  private void enqueueWrite(SecurityLevelStateId id, SecurityLevelState state) {
+    // 이미 대기 중인 키는 덮어쓰므로 항목 수가 늘지 않는다.
+    if (pendingWrites.size() >= properties.getWriteBehindMaxPending()
+        && !pendingWrites.containsKey(id)) {
+      // 감사 기록을 잃지 않도록 대기열이 빌 때까지는 호출한 스레드에서 직접 기록한다.
+      synchronousWrites.increment();
+      batchWriter.upsertAll(List.of(Map.entry(id, state)), properties.getWriteBehindBatchSize());
+      return;
+    }
+    pendingWrites.put(id, state);
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    if (properties.isWarmUpOnStartup()) {
+      restoreFromDatabase();
+    }
+  }
+
+  /**
+   * MySQL 의 만료되지 않은 상태를 Redis 에 되살린다. 그 사이 새 상태가 기록됐을 수 있으므로 키가 없을 때만 쓴다.
+   */
+  public long restoreFromDatabase() {
+    Instant now = clock.instant();
+    Pageable page = PageRequest.of(0, properties.getWriteBehindBatchSize(),
+        Sort.by("tenantId", "userId"));
+    long restored = 0;
+    while (true) {
+      List<SecurityLevelStateEntity> entities = stateRepository.findByExpiresAtAfter(now, page);
+      for (SecurityLevelStateEntity entity : entities) {
+        SecurityLevelState state = JpaSecurityLevelStateStore.toState(entity);
+        Boolean written = redisTemplate.opsForValue().setIfAbsent(
+            key(entity.getTenantId(), entity.getUserId()), encode(state),
+            Duration.between(now, state.expiresAt()));
+        if (Boolean.TRUE.equals(written)) {
+          restored++;
+        }
+      }
+      if (entities.size() < page.getPageSize()) {
+        break;
+      }
+      page = page.next();
+    }
+    log.info("MySQL 에서 보안 레벨 상태 {}건을 Redis 에 복원했습니다.", restored);
+    return restored;
+  }
+
+  @Scheduled(fixedDelayString = "${security.level.cache.write-behind-interval:PT1S}")
+  public void flushPendingWrites() {
+    if (pendingWrites.isEmpty()) {
+      return;
+    }
+    List<Map.Entry<SecurityLevelStateId, SecurityLevelState>> batch =
+        new ArrayList<>(pendingWrites.entrySet());
+    batchWriter.upsertAll(batch, properties.getWriteBehindBatchSize());
+    // 기록하는 동안 새 상태가 들어온 키는 다음 주기에 다시 기록한다.
+    batch.forEach(entry -> pendingWrites.remove(entry.getKey(), entry.getValue()));
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    try {
+      flushPendingWrites();
+    } catch (DataAccessException ex) {
+      log.warn("종료 시 보안 레벨 상태 {}건을 기록하지 못했습니다.", pendingWrites.size(), ex);
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  public int pendingWriteCount() {
+    return pendingWrites.size();
+  }
+
+  public long synchronousWriteCount() {
+    return synchronousWrites.sum();
+  }
+
+  public String getChannel() {
+    return properties.getChannel();
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    nearCache.remove(new String(message.getBody(), StandardCharsets.UTF_8));
+  }
+
+  private void remember(String key, SecurityLevelState state, Instant now) {
+    if (properties.getNearTtl().isZero() || properties.getNearTtl().isNegative()) {
+      return;
+    }
+    if (nearCache.size() >= properties.getNearMaxEntries()) {
+      nearCache.clear();
+    }
+    Instant validUntil = now.plus(properties.getNearTtl());
+    if (state != null && state.expiresAt() != null && state.expiresAt().isBefore(validUntil)) {
+      validUntil = state.expiresAt();
+    }
+    nearCache.put(key, new NearEntry(state, validUntil));
+  }
+
+  private void publishInvalidation(String key) {
+    try {
+      redisTemplate.convertAndSend(properties.getChannel(), key);
+    } catch (DataAccessException ex) {
+      // 전파에 실패해도 다른 노드의 near-cache 는 near-ttl 이 지나면 Redis 값을 다시 읽는다.
+    }
+  }
+
+  private String key(String tenantId, String userId) {
+    return properties.getKeyPrefix() + tenantId + ":" + userId;
+  }
+
+  private String encode(SecurityLevelState state) {
+    return state.level().name() + SEPARATOR + state.expiresAt().toEpochMilli() + SEPARATOR
+        + state.score();
+  }
+
+  private SecurityLevelState decode(String value) {
+    if (value == null) {
+      return null;
+    }
+    String[] parts = value.split("\\|");
+    if (parts.length != 3) {
+      return null;
+    }
+    try {
+      return new SecurityLevelState(SecurityLevel.valueOf(parts[0]),
+          Instant.ofEpochMilli(Long.parseLong(parts[1])), Integer.parseInt(parts[2]));
+    } catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  private record NearEntry(SecurityLevelState state, Instant validUntil) {
+  }
+}
@@ -0,0 +1,37 @@
+package multitenant.security.securitylevel.persistence;
+
+import java.sql.Timestamp;
+import java.util.List;
+import multitenant.security.securitylevel.UserActionEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 대량 유입 이벤트를 JPA 영속성 컨텍스트를 거치지 않고 JDBC 배치 INSERT 로 기록한다.
+ * MySQL 에서는 {@code rewriteBatchedStatements=true} 가 설정되어 있어야 다중 VALUES 로 전송된다.
+ */
+@Repository
+public class SecurityLevelEventBatchWriter {
+
+  private static final String INSERT_SQL = "insert into security_level_event "
+      + "(tenant_id, user_id, action_type, action_detail, occurred_at) values (?, ?, ?, ?, ?)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public SecurityLevelEventBatchWriter(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void insertAll(List<UserActionEvent> events, int batchSize) {
+    if (events.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(INSERT_SQL, events, Math.max(1, batchSize), (ps, event) -> {
+      ps.setString(1, event.tenantId());
+      ps.setString(2, event.userId());
+      ps.setString(3, event.actionType());
+      ps.setString(4, event.actionDetail());
+      ps.setTimestamp(5, Timestamp.from(event.timestamp()));
+    });
+  }
+}
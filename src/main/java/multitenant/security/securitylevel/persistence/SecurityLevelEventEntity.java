@@ -11,7 +11,8 @@ import java.time.Instant;
 
 @Entity
 @Table(name = "security_level_event", indexes = {
-    @Index(name = "idx_security_event_user", columnList = "tenant_id, user_id, occurred_at")
+    @Index(name = "idx_security_event_user", columnList = "tenant_id, user_id, occurred_at"),
+    @Index(name = "idx_security_event_occurred", columnList = "occurred_at")
 })
 public class SecurityLevelEventEntity {
 
@@ -0,0 +1,176 @@
+package multitenant.security.securitylevel.persistence;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * MySQL {@code security_level_event} 테이블을 {@code occurred_at} 기준 RANGE COLUMNS 파티션으로 관리한다.
+ * <ul>
+ *   <li>파티션 전환({@link #convert})은 테이블 전체를 다시 쓰는 차단 작업이므로 정기 작업에서 하지 않고,
+ *       관리자가 점검 시간에 명시적으로 실행한다. 전환 전에는 정기 작업이 행 단위 삭제를 계속한다.</li>
+ *   <li>항상 {@code precreate} 개의 미래 구간을 {@code pmax} 에서 분리해 미리 만들어 둔다.</li>
+ *   <li>상한이 보관 기준 시각 이하인 파티션은 DROP PARTITION 으로 통째로 지운다.</li>
+ * </ul>
+ * 파티션 단위로 지우므로 이벤트는 보관 기간보다 최대 한 구간 더 남을 수 있다.
+ * DDL 이 노드 간에 겹치지 않도록 정리 작업 임대를 보유한 노드에서만 호출된다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.level.partitioning", name = "enabled", havingValue = "true")
+public class SecurityLevelEventPartitionMaintainer {
+
+  static final String TABLE = "security_level_event";
+  static final String MAX_PARTITION = "pmax";
+  private static final String HISTORY_PARTITION = "p_history";
+  private static final DateTimeFormatter BOUNDARY_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+  private final JdbcTemplate jdbcTemplate;
+  private final SecurityLevelProperties properties;
+
+  public SecurityLevelEventPartitionMaintainer(JdbcTemplate jdbcTemplate,
+      SecurityLevelProperties properties) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.properties = properties;
+  }
+
+  /**
+   * 미래 구간을 만들고 보관 기간이 지난 구간을 삭제한 뒤 삭제한 파티션 수를 돌려준다.
+   */
+  public int maintain(Instant now, Instant cutoff) {
+    List<Partition> existing = loadPartitions();
+    if (existing.isEmpty()) {
+      throw new IllegalStateException("파티션되지 않은 테이블입니다: " + TABLE);
+    }
+    PartitionGranularity granularity = properties.getPartitioning().getGranularity();
+    addAhead(existing, granularity, local(now));
+    return dropExpired(existing, local(cutoff));
+  }
+
+  public boolean isPartitioned() {
+    return !loadPartitions().isEmpty();
+  }
+
+  /**
+   * 파티션되지 않은 테이블의 기본 키를 (id, occurred_at) 로 바꾸고 RANGE COLUMNS 파티션으로 전환한다.
+   * 두 ALTER 모두 테이블 전체를 다시 쓰며 그동안 쓰기가 막히므로 점검 시간에만 실행한다.
+   */
+  public void convert(Instant now, Instant cutoff) {
+    if (isPartitioned()) {
+      throw new IllegalStateException("이미 파티션된 테이블입니다: " + TABLE);
+    }
+    PartitionGranularity granularity = properties.getPartitioning().getGranularity();
+    LocalDateTime first = granularity.next(granularity.floor(local(cutoff)));
+    List<Partition> partitions = new ArrayList<>();
+    partitions.add(new Partition(HISTORY_PARTITION, first));
+    partitions.addAll(plan(granularity, first, local(now),
+        properties.getPartitioning().getPrecreate()));
+    partitions.add(new Partition(MAX_PARTITION, null));
+    jdbcTemplate.execute("ALTER TABLE " + TABLE
+        + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, occurred_at)");
+    jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(occurred_at) ("
+        + definitions(partitions) + ")");
+  }
+
+  private LocalDateTime local(Instant instant) {
+    return LocalDateTime.ofInstant(instant, ZoneId.of(properties.getPartitioning().getZone()));
+  }
+
+  private void addAhead(List<Partition> existing, PartitionGranularity granularity,
+      LocalDateTime now) {
+    LocalDateTime highest = existing.stream()
+        .map(Partition::upperBound)
+        .filter(bound -> bound != null)
+        .max(LocalDateTime::compareTo)
+        .orElse(null);
+    if (highest == null) {
+      return;
+    }
+    List<Partition> additions = plan(granularity, highest, now,
+        properties.getPartitioning().getPrecreate());
+    if (additions.isEmpty()) {
+      return;
+    }
+    boolean hasMax = existing.stream().anyMatch(p -> p.upperBound() == null);
+    if (hasMax) {
+      List<Partition> reorganized = new ArrayList<>(additions);
+      reorganized.add(new Partition(MAX_PARTITION, null));
+      jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + MAX_PARTITION
+          + " INTO (" + definitions(reorganized) + ")");
+    } else {
+      jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PARTITION (" + definitions(additions)
+          + ")");
+    }
+  }
+
+  private int dropExpired(List<Partition> existing, LocalDateTime cutoff) {
+    List<String> expired = existing.stream()
+        .filter(p -> p.upperBound() != null && !p.upperBound().isAfter(cutoff))
+        .map(Partition::name)
+        .toList();
+    if (expired.isEmpty()) {
+      return 0;
+    }
+    jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + String.join(", ", expired));
+    return expired.size();
+  }
+
+  private List<Partition> loadPartitions() {
+    return jdbcTemplate.query("""
+            select partition_name, partition_description
+              from information_schema.partitions
+             where table_schema = database() and table_name = ? and partition_name is not null
+             order by partition_ordinal_position
+            """,
+        (rs, rowNum) -> new Partition(rs.getString(1), parseBound(rs.getString(2))), TABLE);
+  }
+
+  /**
+   * {@code from} 이후로 {@code now} 가 속한 구간에서 {@code ahead} 개 뒤까지 덮도록 추가할 구간을 계산한다.
+   */
+  static List<Partition> plan(PartitionGranularity granularity, LocalDateTime from,
+      LocalDateTime now, int ahead) {
+    LocalDateTime target = granularity.next(granularity.floor(now));
+    for (int i = 0; i < Math.max(0, ahead); i++) {
+      target = granularity.next(target);
+    }
+    List<Partition> partitions = new ArrayList<>();
+    LocalDateTime start = from;
+    while (start.isBefore(target)) {
+      LocalDateTime end = granularity.next(start);
+      partitions.add(new Partition(granularity.partitionName(start), end));
+      start = end;
+    }
+    return partitions;
+  }
+
+  static LocalDateTime parseBound(String description) {
+    if (description == null || "MAXVALUE".equalsIgnoreCase(description.trim())) {
+      return null;
+    }
+    String value = description.trim().replace("'", "");
+    return LocalDateTime.parse(value, BOUNDARY_FORMAT);
+  }
+
+  private static String definitions(List<Partition> partitions) {
+    return partitions.stream()
+        .map(p -> "PARTITION " + p.name() + " VALUES LESS THAN ("
+            + (p.upperBound() == null ? "MAXVALUE" : "'" + BOUNDARY_FORMAT.format(p.upperBound())
+            + "'") + ")")
+        .collect(Collectors.joining(", "));
+  }
+
+  /**
+   * {@code upperBound} 가 null 이면 MAXVALUE 파티션이다.
+   */
+  record Partition(String name, LocalDateTime upperBound) {
+  }
+}
@@ -14,6 +14,10 @@ public interface SecurityLevelEventRepository
   List<SecurityLevelEventEntity> findByTenantIdAndUserIdOrderByOccurredAtDesc(String tenantId,
       String userId, Pageable pageable);
 
+  @Query("select e.id from SecurityLevelEventEntity e where e.tenantId = :tenantId and e.userId = :userId and e.occurredAt < :cutoff order by e.occurredAt")
+  List<Long> findIdsOlderThanForUser(@Param("tenantId") String tenantId,
+      @Param("userId") String userId, @Param("cutoff") Instant cutoff, Pageable pageable);
+
   void deleteByTenantIdAndUserId(String tenantId, String userId);
 
   @Modifying
@@ -24,4 +28,7 @@ public interface SecurityLevelEventRepository
   @Modifying
   @Query("delete from SecurityLevelEventEntity e where e.occurredAt < :cutoff")
   int deleteOlderThan(@Param("cutoff") Instant cutoff);
+
+  @Query("select e.id from SecurityLevelEventEntity e where e.occurredAt < :cutoff order by e.occurredAt")
+  List<Long> findIdsOlderThan(@Param("cutoff") Instant cutoff, Pageable pageable);
 }
@@ -0,0 +1,45 @@
+package multitenant.security.securitylevel.persistence;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import multitenant.security.securitylevel.SecurityLevelState;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * write-behind 로 모인 보안 레벨 상태를 JDBC 배치 upsert 로 기록한다.
+ * JPA saveAll 은 엔티티마다 병합용 SELECT 를 먼저 실행하므로 대신 {@code ON DUPLICATE KEY UPDATE} 를 쓴다.
+ */
+@Repository
+public class SecurityLevelStateBatchWriter {
+
+  private static final String UPSERT_SQL = "insert into security_level_state "
+      + "(tenant_id, user_id, level, expires_at, score, updated_at) values (?, ?, ?, ?, ?, ?) "
+      + "on duplicate key update level = values(level), expires_at = values(expires_at), "
+      + "score = values(score), updated_at = values(updated_at)";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public SecurityLevelStateBatchWriter(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  public void upsertAll(List<Map.Entry<SecurityLevelStateId, SecurityLevelState>> states,
+      int batchSize) {
+    if (states.isEmpty()) {
+      return;
+    }
+    Timestamp updatedAt = Timestamp.from(Instant.now());
+    jdbcTemplate.batchUpdate(UPSERT_SQL, states, Math.max(1, batchSize), (ps, entry) -> {
+      SecurityLevelState state = entry.getValue();
+      ps.setString(1, entry.getKey().getTenantId());
+      ps.setString(2, entry.getKey().getUserId());
+      ps.setString(3, state.level().name());
+      ps.setTimestamp(4, Timestamp.from(state.expiresAt()));
+      ps.setInt(5, state.score());
+      ps.setTimestamp(6, updatedAt);
+    });
+  }
+}
@@ -6,12 +6,15 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.Instant;
 import multitenant.security.securitylevel.SecurityLevel;
 
 @Entity
-@Table(name = "security_level_state")
+@Table(name = "security_level_state", indexes = {
+    @Index(name = "idx_security_state_expires", columnList = "expires_at")
+})
 @IdClass(SecurityLevelStateId.class)
 public class SecurityLevelStateEntity {
 
@@ -1,7 +1,9 @@
 package multitenant.security.securitylevel.persistence;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -13,5 +15,15 @@ public interface SecurityLevelStateRepository extends JpaRepository<SecurityLeve
   @Query("delete from SecurityLevelStateEntity s where s.expiresAt < :cutoff")
   int deleteExpired(@Param("cutoff") Instant cutoff);
 
+  @Query("select new multitenant.security.securitylevel.persistence.SecurityLevelStateId(s.tenantId, s.userId) from SecurityLevelStateEntity s where s.expiresAt < :cutoff order by s.expiresAt")
+  List<SecurityLevelStateId> findExpiredIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+  @Modifying
+  @Query("delete from SecurityLevelStateEntity s where s.tenantId = :tenantId and s.userId in :userIds and s.expiresAt < :cutoff")
+  int deleteExpiredForUsers(@Param("tenantId") String tenantId,
+      @Param("userIds") Collection<String> userIds, @Param("cutoff") Instant cutoff);
+
   List<SecurityLevelStateEntity> findByTenantId(String tenantId);
+
+  List<SecurityLevelStateEntity> findByExpiresAtAfter(Instant now, Pageable pageable);
 }
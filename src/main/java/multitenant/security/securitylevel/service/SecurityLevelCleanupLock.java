@@ -0,0 +1,102 @@
+package multitenant.security.securitylevel.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * 여러 노드 중 한 곳에서만 보안 레벨 정리 작업을 실행하도록 Redis 키로 임대(lease)를 건다.
+ * 임대를 얻을 때마다 새 소유자 값을 저장하고, 정리 작업은 청크마다 {@link #renew(Lease)} 로 값이 여전히
+ * 자신의 것인지 확인한 뒤 진행한다. 만료 후 다른 노드가 임대를 가져가면 이전 소유자는 다음 청크 전에
+ * 중단된다. 이미 진행 중인 청크는 끝까지 실행될 수 있지만, 정리 작업은 만료된 행만 지우므로 두 노드가
+ * 겹쳐 실행되어도 결과는 같다.
+ */
+@Component
+public class SecurityLevelCleanupLock {
+
+  private static final Logger log = LoggerFactory.getLogger(SecurityLevelCleanupLock.class);
+
+  // KEYS: 잠금 키 / ARGV: 소유자 값, TTL(ms)
+  private static final RedisScript<Long> RENEW = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('PEXPIRE', KEYS[1], ARGV[2])
+      end
+      return 0
+      """, Long.class);
+
+  // KEYS: 잠금 키 / ARGV: 소유자 값
+  private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>("""
+      if redis.call('GET', KEYS[1]) == ARGV[1] then
+        return redis.call('DEL', KEYS[1])
+      end
+      return 0
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final SecurityLevelProperties properties;
+  private final String nodeId = UUID.randomUUID().toString();
+
+  public SecurityLevelCleanupLock(StringRedisTemplate redisTemplate,
+      SecurityLevelProperties properties) {
+    this.redisTemplate = redisTemplate;
+    this.properties = properties;
+  }
+
+  /**
+   * 임대를 시도한다. 다른 노드가 보유 중이면 Redis 호출 한 번으로 바로 빈 값을 돌려준다.
+   */
+  public Optional<Lease> tryAcquire() {
+    String key = properties.getCleanupLockKey();
+    String owner = nodeId + ":" + UUID.randomUUID();
+    Boolean acquired = redisTemplate.opsForValue().setIfAbsent(key, owner, ttl());
+    return Boolean.TRUE.equals(acquired) ? Optional.of(new Lease(key, owner)) : Optional.empty();
+  }
+
+  public boolean renew(Lease lease) {
+    Long renewed = redisTemplate.execute(RENEW, List.of(lease.key()), lease.owner(),
+        Long.toString(ttl().toMillis()));
+    return renewed != null && renewed > 0;
+  }
+
+  public void release(Lease lease) {
+    redisTemplate.execute(RELEASE, List.of(lease.key()), lease.owner());
+  }
+
+  /**
+   * 청크로 나눌 수 없는 긴 작업(DDL 등)을 실행하는 동안 TTL 의 1/3 마다 임대를 연장하고, 끝나면 해제한다.
+   */
+  public void runHolding(Lease lease, Runnable task) {
+    long period = Math.max(1, ttl().toMillis() / 3);
+    ScheduledExecutorService renewer =
+        Executors.newSingleThreadScheduledExecutor(Thread.ofVirtual().factory());
+    renewer.scheduleAtFixedRate(() -> {
+      if (!renew(lease)) {
+        log.warn("정리 작업 임대 {} 을(를) 연장하지 못했습니다.", lease.key());
+      }
+    }, period, period, TimeUnit.MILLISECONDS);
+    try {
+      task.run();
+    } finally {
+      renewer.shutdownNow();
+      release(lease);
+    }
+  }
+
+  private Duration ttl() {
+    return Duration.ofMillis(Math.max(1, properties.getCleanupLockTtl().toMillis()));
+  }
+
+  public record Lease(String key, String owner) {
+  }
+}
@@ -0,0 +1,172 @@
+package multitenant.security.securitylevel.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import multitenant.security.securitylevel.persistence.SecurityLevelEventPartitionMaintainer;
+import multitenant.security.securitylevel.persistence.SecurityLevelEventRepository;
+import multitenant.security.securitylevel.persistence.SecurityLevelStateId;
+import multitenant.security.securitylevel.persistence.SecurityLevelStateRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 만료된 보안 레벨 상태와 보관 기간이 지난 이벤트를 나누어 삭제한다.
+ * 매 청크마다 가장 오래된 행의 키를 최대 {@code cleanup-batch-size} 개 읽어 그 키로만 지우고 바로 커밋하므로,
+ * 같은 시각의 행이 많아도 한 번에 잡는 잠금과 언두 로그가 청크 크기로 제한된다. 실행 시간이 {@code cleanup-time-budget} 을 넘으면
+ * 남은 행은 다음 주기로 넘긴다. 이벤트 테이블 파티션이 활성화되어 있고 테이블이 이미 파티션으로 전환되었으면
+ * 이벤트는 파티션 삭제로 정리한다.
+ */
+@Component
+public class SecurityLevelDataCleaner {
+
+  private final SecurityLevelStateRepository stateRepository;
+  private final SecurityLevelEventRepository eventRepository;
+  private final SecurityLevelProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectProvider<SecurityLevelEventPartitionMaintainer> partitionMaintainer;
+  private final LongAdder deletedStates = new LongAdder();
+  private final LongAdder deletedEvents = new LongAdder();
+  private final LongAdder droppedPartitions = new LongAdder();
+  private final LongAdder elapsedMillis = new LongAdder();
+  private volatile Result lastResult;
+
+  public SecurityLevelDataCleaner(SecurityLevelStateRepository stateRepository,
+      SecurityLevelEventRepository eventRepository,
+      SecurityLevelProperties properties,
+      TransactionTemplate transactionTemplate,
+      ObjectProvider<SecurityLevelEventPartitionMaintainer> partitionMaintainer) {
+    this.stateRepository = stateRepository;
+    this.eventRepository = eventRepository;
+    this.properties = properties;
+    this.transactionTemplate = transactionTemplate;
+    this.partitionMaintainer = partitionMaintainer;
+  }
+
+  public Result cleanup(Instant stateCutoff, Instant eventCutoff) {
+    return cleanup(stateCutoff, eventCutoff, () -> true);
+  }
+
+  /**
+   * {@code mayContinue} 는 각 청크 직전에 호출되며, false 를 돌려주면 남은 작업을 중단한다.
+   */
+  public Result cleanup(Instant stateCutoff, Instant eventCutoff, BooleanSupplier mayContinue) {
+    long started = System.nanoTime();
+    long deadline = started + properties.getCleanupTimeBudget().toNanos();
+    int batchSize = Math.max(1, properties.getCleanupBatchSize());
+
+    Chunked states = deleteInChunks(deadline, batchSize, mayContinue,
+        page -> stateRepository.findExpiredIds(stateCutoff, page),
+        ids -> deleteExpiredStates(ids, stateCutoff));
+    SecurityLevelEventPartitionMaintainer maintainer = partitionMaintainer.getIfAvailable();
+    Chunked events;
+    int dropped = 0;
+    if (maintainer != null && maintainer.isPartitioned()) {
+      // 상태 기준 시각이 곧 현재 시각이다.
+      dropped = mayContinue.getAsBoolean() ? maintainer.maintain(stateCutoff, eventCutoff) : 0;
+      events = new Chunked(0, true);
+    } else {
+      events = deleteInChunks(deadline, batchSize, mayContinue,
+          page -> eventRepository.findIdsOlderThan(eventCutoff, page),
+          ids -> {
+            eventRepository.deleteAllByIdInBatch(ids);
+            return ids.size();
+          });
+    }
+
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+    Result result = new Result(states.deleted(), events.deleted(), dropped, elapsed,
+        states.completed() && events.completed());
+    deletedStates.add(result.deletedStates());
+    deletedEvents.add(result.deletedEvents());
+    droppedPartitions.add(result.droppedPartitions());
+    elapsedMillis.add(elapsed.toMillis());
+    lastResult = result;
+    return result;
+  }
+
+  public boolean isPartitioningEnabled() {
+    return partitionMaintainer.getIfAvailable() != null;
+  }
+
+  /**
+   * 이벤트 테이블을 파티션 테이블로 전환한다. 파티션 관리가 비활성화되어 있으면 예외를 던진다.
+   */
+  public void partitionEventTable(Instant now, Instant eventCutoff) {
+    SecurityLevelEventPartitionMaintainer maintainer = partitionMaintainer.getIfAvailable();
+    if (maintainer == null) {
+      throw new IllegalStateException("이벤트 테이블 파티션 관리가 비활성화되어 있습니다.");
+    }
+    maintainer.convert(now, eventCutoff);
+  }
+
+  public long deletedStateCount() {
+    return deletedStates.sum();
+  }
+
+  public long deletedEventCount() {
+    return deletedEvents.sum();
+  }
+
+  public long droppedPartitionCount() {
+    return droppedPartitions.sum();
+  }
+
+  public Duration totalElapsed() {
+    return Duration.ofMillis(elapsedMillis.sum());
+  }
+
+  public Result lastResult() {
+    return lastResult;
+  }
+
+  private <I> Chunked deleteInChunks(long deadline, int batchSize, BooleanSupplier mayContinue,
+      Function<Pageable, List<I>> idLookup, ToIntFunction<List<I>> deleteByIds) {
+    int deleted = 0;
+    while (System.nanoTime() < deadline && mayContinue.getAsBoolean()) {
+      List<I> ids = idLookup.apply(PageRequest.of(0, batchSize));
+      if (!ids.isEmpty()) {
+        Integer chunk = transactionTemplate.execute(status -> deleteByIds.applyAsInt(ids));
+        deleted += chunk == null ? 0 : chunk;
+      }
+      if (ids.size() < batchSize) {
+        return new Chunked(deleted, true);
+      }
+    }
+    return new Chunked(deleted, false);
+  }
+
+  /**
+   * 조회 이후 갱신된 상태는 지우지 않도록 만료 조건을 다시 건다. 테넌트마다 한 문장으로 지운다.
+   */
+  private int deleteExpiredStates(List<SecurityLevelStateId> ids, Instant cutoff) {
+    Map<String, List<String>> usersByTenant = ids.stream().collect(Collectors.groupingBy(
+        SecurityLevelStateId::getTenantId,
+        Collectors.mapping(SecurityLevelStateId::getUserId, Collectors.toList())));
+    int deleted = 0;
+    for (Map.Entry<String, List<String>> entry : usersByTenant.entrySet()) {
+      deleted += stateRepository.deleteExpiredForUsers(entry.getKey(), entry.getValue(), cutoff);
+    }
+    return deleted;
+  }
+
+  private record Chunked(int deleted, boolean completed) {
+  }
+
+  /**
+   * 한 번의 정리 실행 결과. {@code completed} 가 false 이면 시간 예산을 넘겼거나 중단되어 남은 행이 있다.
+   */
+  public record Result(int deletedStates, int deletedEvents, int droppedPartitions,
+      Duration elapsed, boolean completed) {
+  }
+}
@@ -0,0 +1,91 @@
+package multitenant.security.securitylevel.service;
+
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import multitenant.security.securitylevel.persistence.SecurityLevelEventEntity;
+import multitenant.security.securitylevel.persistence.SecurityLevelEventRepository;
+import multitenant.security.securitylevel.persistence.SecurityLevelStateId;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 사용자별 이벤트 보관 개수({@code security.level.retention-events}) 정리를 이벤트 등록 경로에서 분리한다.
+ * 이벤트가 등록된 사용자만 표시해 두었다가 주기적으로 한꺼번에 정리하며, 삭제는
+ * {@code idx_security_event_user} 인덱스를 따라 {@code prune-delete-batch-size} 단위의 짧은 트랜잭션으로 나눈다.
+ * 표시는 메모리에만 있으므로 재시작 시 남은 초과분은 다음 이벤트 등록이나 보관 기간 정리에서 처리된다.
+ */
+@Component
+public class SecurityLevelEventPruner {
+
+  private final SecurityLevelEventRepository eventRepository;
+  private final SecurityLevelProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final Set<SecurityLevelStateId> dirtyUsers = ConcurrentHashMap.newKeySet();
+  private final LongAdder pruned = new LongAdder();
+
+  public SecurityLevelEventPruner(SecurityLevelEventRepository eventRepository,
+      SecurityLevelProperties properties, TransactionTemplate transactionTemplate) {
+    this.eventRepository = eventRepository;
+    this.properties = properties;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  public void markDirty(String tenantId, String userId) {
+    dirtyUsers.add(new SecurityLevelStateId(tenantId, userId));
+  }
+
+  @Scheduled(fixedDelayString = "${security.level.prune-interval:PT10S}",
+      initialDelayString = "${security.level.prune-interval:PT10S}")
+  public void pruneDirtyUsers() {
+    Iterator<SecurityLevelStateId> iterator = dirtyUsers.iterator();
+    while (iterator.hasNext()) {
+      SecurityLevelStateId id = iterator.next();
+      // 정리 도중 새 이벤트가 들어오면 다시 표시되어 다음 주기에 처리된다.
+      iterator.remove();
+      pruneUser(id.getTenantId(), id.getUserId());
+    }
+  }
+
+  public int dirtyUserCount() {
+    return dirtyUsers.size();
+  }
+
+  public long prunedCount() {
+    return pruned.sum();
+  }
+
+  private void pruneUser(String tenantId, String userId) {
+    int retentionEvents = properties.getRetentionEvents();
+    if (retentionEvents <= 0) {
+      return;
+    }
+    // 보관할 마지막(가장 오래된) 이벤트 한 건만 읽어 기준 시각으로 삼는다.
+    List<SecurityLevelEventEntity> boundary =
+        eventRepository.findByTenantIdAndUserIdOrderByOccurredAtDesc(tenantId, userId,
+            PageRequest.of(retentionEvents - 1, 1));
+    if (boundary.isEmpty()) {
+      return;
+    }
+    Instant cutoff = boundary.get(0).getOccurredAt();
+    int batchSize = Math.max(1, properties.getPruneDeleteBatchSize());
+    while (true) {
+      List<Long> ids = eventRepository.findIdsOlderThanForUser(tenantId, userId, cutoff,
+          PageRequest.of(0, batchSize));
+      if (ids.isEmpty()) {
+        return;
+      }
+      transactionTemplate.executeWithoutResult(status -> eventRepository.deleteAllByIdInBatch(ids));
+      pruned.add(ids.size());
+      if (ids.size() < batchSize) {
+        return;
+      }
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package multitenant.security.securitylevel.service;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.atomic.LongAdder;
+import multitenant.security.securitylevel.UserActionEvent;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 위험 피드처럼 몰려 들어오는 사용자 행동 이벤트를 모아 {@link SecurityLevelService#registerActions(List)}
+ * 로 일괄 처리한다. 이벤트 시각은 큐에 넣는 시점으로 고정되므로 처리 지연이 TTL 계산에 영향을 주지 않는다.
+ * 배치 처리에 실패하면 트랜잭션이 롤백되므로 배치의 이벤트를 한 건씩 다시 처리하고, 그래도 실패한 이벤트만
+ * 큐 앞쪽에 순서대로 되돌려 다음 주기에 다시 처리한다. 잘못된 이벤트 하나가 같은 배치의 다른 사용자 이벤트를
+ * 함께 버리게 하지 않기 위해서다. {@code max-attempts} 번 실패했거나 큐에 자리가 없어 되돌리지 못한 이벤트는
+ * 로그를 남기고 집계한 뒤 버린다.
+ */
+@Component
+public class SecurityLevelIngestionQueue implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(SecurityLevelIngestionQueue.class);
+  // 웹 서버가 요청 처리를 멈춘 뒤, 데이터소스가 닫히기 전에 남은 이벤트를 처리한다.
+  private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+  private final SecurityLevelService securityLevelService;
+  private final Clock clock;
+  private final BlockingDeque<Pending> pending;
+  private final int batchSize;
+  private final int maxAttempts;
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder processedInline = new LongAdder();
+  private final LongAdder failedBatches = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private volatile boolean running;
+
+  public SecurityLevelIngestionQueue(SecurityLevelService securityLevelService,
+      SecurityLevelProperties properties, Clock clock) {
+    this.securityLevelService = securityLevelService;
+    this.clock = clock;
+    this.pending = new LinkedBlockingDeque<>(Math.max(1, properties.getIngestion().getCapacity()));
+    this.batchSize = Math.max(1, properties.getIngestion().getBatchSize());
+    this.maxAttempts = Math.max(1, properties.getIngestion().getMaxAttempts());
+  }
+
+  /**
+   * 이벤트를 큐에 넣는다. 큐가 가득 차면 유실되지 않도록 호출 스레드에서 바로 처리한다.
+   */
+  public void submit(String tenantId, String userId, String actionType, String detail) {
+    if (!StringUtils.hasText(tenantId) || !StringUtils.hasText(userId)) {
+      throw new IllegalArgumentException("테넌트와 사용자 ID가 필요합니다.");
+    }
+    UserActionEvent event = new UserActionEvent(tenantId, userId, actionType, detail,
+        clock.instant());
+    if (!pending.offerLast(new Pending(event, 0))) {
+      securityLevelService.registerActions(List.of(event));
+      processedInline.increment();
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${security.level.ingestion.flush-interval:PT0.2S}",
+      initialDelayString = "${security.level.ingestion.flush-interval:PT0.2S}")
+  public void flush() {
+    List<Pending> batch = new ArrayList<>(batchSize);
+    while (true) {
+      batch.clear();
+      pending.drainTo(batch, batchSize);
+      if (batch.isEmpty()) {
+        return;
+      }
+      try {
+        securityLevelService.registerActions(batch.stream().map(Pending::event).toList());
+        processed.add(batch.size());
+      } catch (RuntimeException ex) {
+        failedBatches.increment();
+        log.warn("보안 레벨 이벤트 {}건 일괄 처리에 실패해 한 건씩 다시 처리합니다.", batch.size(), ex);
+        if (!registerEach(batch)) {
+          // 남은 실패 이벤트는 다음 주기에 다시 시도한다.
+          return;
+        }
+      }
+    }
+  }
+
+  private boolean registerEach(List<Pending> batch) {
+    List<Pending> failed = new ArrayList<>();
+    RuntimeException lastError = null;
+    for (Pending entry : batch) {
+      try {
+        securityLevelService.registerActions(List.of(entry.event()));
+        processed.increment();
+      } catch (RuntimeException ex) {
+        failed.add(entry);
+        lastError = ex;
+      }
+    }
+    if (failed.isEmpty()) {
+      return true;
+    }
+    int requeued = requeue(failed);
+    log.warn("보안 레벨 이벤트 {}건 처리에 실패해 {}건을 다시 대기열에 넣고 {}건을 버렸습니다.",
+        failed.size(), requeued, failed.size() - requeued, lastError);
+    return false;
+  }
+
+  private int requeue(List<Pending> batch) {
+    int requeued = 0;
+    for (int i = batch.size() - 1; i >= 0; i--) {
+      Pending retry = batch.get(i).retried();
+      if (retry.attempts() < maxAttempts && pending.offerFirst(retry)) {
+        requeued++;
+      } else {
+        dropped.increment();
+      }
+    }
+    return requeued;
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  public long processedCount() {
+    return processed.sum();
+  }
+
+  public long processedInlineCount() {
+    return processedInline.sum();
+  }
+
+  public long failedBatchCount() {
+    return failedBatches.sum();
+  }
+
+  public long droppedCount() {
+    return dropped.sum();
+  }
+
+  @Override
+  public void start() {
+    running = true;
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    flush();
+    if (!pending.isEmpty()) {
+      log.warn("종료 시 보안 레벨 이벤트 {}건을 처리하지 못했습니다.", pending.size());
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  @Override
+  public int getPhase() {
+    return PHASE;
+  }
+
+  private record Pending(UserActionEvent event, int attempts) {
+
+    Pending retried() {
+      return new Pending(event, attempts + 1);
+    }
+  }
+}
@@ -3,20 +3,27 @@ package multitenant.security.securitylevel.service;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import multitenant.security.securitylevel.SecurityLevel;
 import multitenant.security.securitylevel.SecurityLevelCalculator;
 import multitenant.security.securitylevel.SecurityLevelState;
 import multitenant.security.securitylevel.UserActionEvent;
 import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import multitenant.security.securitylevel.persistence.SecurityLevelEventBatchWriter;
 import multitenant.security.securitylevel.persistence.SecurityLevelEventEntity;
 import multitenant.security.securitylevel.persistence.SecurityLevelEventRepository;
-import multitenant.security.securitylevel.persistence.SecurityLevelStateEntity;
 import multitenant.security.securitylevel.persistence.SecurityLevelStateId;
-import multitenant.security.securitylevel.persistence.SecurityLevelStateRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -24,38 +31,50 @@ import org.springframework.util.StringUtils;
 @Transactional
 public class SecurityLevelService {
 
+  private static final Logger log = LoggerFactory.getLogger(SecurityLevelService.class);
+
   private final SecurityLevelCalculator calculator;
-  private final SecurityLevelStateRepository stateRepository;
+  private final SecurityLevelStateStore stateStore;
   private final SecurityLevelEventRepository eventRepository;
+  private final SecurityLevelEventBatchWriter eventBatchWriter;
+  private final SecurityLevelEventPruner eventPruner;
+  private final SecurityLevelDataCleaner dataCleaner;
+  private final SecurityLevelCleanupLock cleanupLock;
   private final SecurityLevelProperties properties;
   private final Clock clock;
 
   public SecurityLevelService(SecurityLevelCalculator calculator,
-      SecurityLevelStateRepository stateRepository,
+      SecurityLevelStateStore stateStore,
       SecurityLevelEventRepository eventRepository,
+      SecurityLevelEventBatchWriter eventBatchWriter,
+      SecurityLevelEventPruner eventPruner,
+      SecurityLevelDataCleaner dataCleaner,
+      SecurityLevelCleanupLock cleanupLock,
       SecurityLevelProperties properties,
       Clock clock) {
     this.calculator = calculator;
-    this.stateRepository = stateRepository;
+    this.stateStore = stateStore;
     this.eventRepository = eventRepository;
+    this.eventBatchWriter = eventBatchWriter;
+    this.eventPruner = eventPruner;
+    this.dataCleaner = dataCleaner;
+    this.cleanupLock = cleanupLock;
     this.properties = properties;
     this.clock = clock;
   }
 
+  @Transactional(propagation = Propagation.SUPPORTS)
   public SecurityLevelState currentLevel(String tenantId, String userId) {
     if (!StringUtils.hasText(tenantId) || !StringUtils.hasText(userId)) {
       return calculator.defaultState();
     }
     String trimmedTenant = tenantId.trim();
     String trimmedUser = userId.trim();
-    SecurityLevelStateEntity entity = stateRepository
-        .findById(new SecurityLevelStateId(trimmedTenant, trimmedUser))
-        .orElse(null);
     Instant now = clock.instant();
-    SecurityLevelState current = toState(entity);
+    SecurityLevelState current = stateStore.find(trimmedTenant, trimmedUser).orElse(null);
     boolean entityExpired = current == null || current.isExpired(now);
     SecurityLevelState refreshed = calculator.refreshIfExpired(current);
-    if (entityExpired) {
+    if (entityExpired && properties.isPersistDefaultState()) {
       saveState(trimmedTenant, trimmedUser, refreshed);
     }
     return refreshed;
@@ -84,11 +103,64 @@ public class SecurityLevelService {
     eventRepository.save(eventEntity);
 
     SecurityLevelState next = calculator.applyEvent(current, event);
-    saveState(trimmedTenant, trimmedUser, next);
-    pruneOldEvents(trimmedTenant, trimmedUser);
+    if (isMaterialized(next)) {
+      saveState(trimmedTenant, trimmedUser, next);
+    }
+    eventPruner.markDirty(trimmedTenant, trimmedUser);
     return next;
   }
 
+  /**
+   * 여러 이벤트를 한 트랜잭션에서 처리한다. 이벤트는 (테넌트, 사용자)별로 묶어 발생 순서대로 누적 계산하고,
+   * 이벤트는 JDBC 배치로 기록하며 상태 저장은 사용자당 한 번만 수행한다.
+   */
+  public Map<SecurityLevelStateId, SecurityLevelState> registerActions(
+      List<UserActionEvent> events) {
+    if (events == null || events.isEmpty()) {
+      return Map.of();
+    }
+    Instant now = clock.instant();
+    // 시각이 없는 이벤트는 입력 순서가 유지되도록 1마이크로초씩 띄운다(DATETIME(6) 해상도).
+    long untimed = 0;
+    List<UserActionEvent> normalized = new ArrayList<>(events.size());
+    Map<SecurityLevelStateId, List<UserActionEvent>> byUser = new LinkedHashMap<>();
+    for (UserActionEvent event : events) {
+      if (event == null || !StringUtils.hasText(event.tenantId())
+          || !StringUtils.hasText(event.userId())) {
+        throw new IllegalArgumentException("테넌트와 사용자 ID가 필요합니다.");
+      }
+      UserActionEvent resolved = new UserActionEvent(
+          event.tenantId().trim(),
+          event.userId().trim(),
+          StringUtils.hasText(event.actionType()) ? event.actionType().trim() : "UNKNOWN",
+          StringUtils.hasText(event.actionDetail()) ? event.actionDetail().trim() : "",
+          event.timestamp() != null ? event.timestamp() : now.plusNanos(1_000 * untimed++));
+      normalized.add(resolved);
+      byUser.computeIfAbsent(new SecurityLevelStateId(resolved.tenantId(), resolved.userId()),
+          key -> new ArrayList<>()).add(resolved);
+    }
+
+    eventBatchWriter.insertAll(normalized, properties.getIngestion().getBatchSize());
+
+    Map<SecurityLevelStateId, SecurityLevelState> results = new LinkedHashMap<>();
+    byUser.forEach((id, userEvents) -> {
+      userEvents.sort(Comparator.comparing(UserActionEvent::timestamp));
+      SecurityLevelState state = currentLevel(id.getTenantId(), id.getUserId());
+      for (UserActionEvent event : userEvents) {
+        if (state.isExpired(event.timestamp())) {
+          state = null;
+        }
+        state = calculator.applyEvent(state, event);
+      }
+      if (isMaterialized(state)) {
+        saveState(id.getTenantId(), id.getUserId(), state);
+      }
+      eventPruner.markDirty(id.getTenantId(), id.getUserId());
+      results.put(id, state);
+    });
+    return results;
+  }
+
   public List<UserActionEvent> recentActions(String tenantId, String userId) {
     if (!StringUtils.hasText(tenantId) || !StringUtils.hasText(userId)) {
       return List.of();
@@ -105,44 +177,61 @@ public class SecurityLevelService {
         .toList();
   }
 
+  @Transactional(propagation = Propagation.SUPPORTS)
   public SecurityLevel resolveSecurityLevel(String tenantId, String userId) {
     return currentLevel(tenantId, userId).level();
   }
 
-  @Scheduled(fixedDelayString = "${security.level.cleanup-interval:PT5M}")
-  @Transactional
+  @Scheduled(fixedDelayString = "${security.level.cleanup-interval:PT5M}",
+      initialDelayString = "${security.level.cleanup-interval:PT5M}")
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
   public void cleanupExpiredData() {
-    Instant now = clock.instant();
-    stateRepository.deleteExpired(now);
-    Instant eventCutoff = now.minus(properties.getRetentionWindow());
-    eventRepository.deleteOlderThan(eventCutoff);
+    // 클러스터에서 임대를 얻은 한 노드만 실행하며, 청크마다 커밋하도록 바깥 트랜잭션 없이 실행한다.
+    Optional<SecurityLevelCleanupLock.Lease> lease = cleanupLock.tryAcquire();
+    if (lease.isEmpty()) {
+      return;
+    }
+    try {
+      Instant now = clock.instant();
+      dataCleaner.cleanup(now, now.minus(properties.getRetentionWindow()),
+          () -> cleanupLock.renew(lease.get()));
+    } finally {
+      cleanupLock.release(lease.get());
+    }
   }
 
-  private void saveState(String tenantId, String userId, SecurityLevelState state) {
-    SecurityLevelStateEntity entity = new SecurityLevelStateEntity();
-    entity.setTenantId(tenantId);
-    entity.setUserId(userId);
-    entity.setLevel(state.level());
-    entity.setExpiresAt(state.expiresAt());
-    entity.setScore(state.score());
-    entity.setUpdatedAt(Instant.now());
-    stateRepository.save(entity);
+  /**
+   * 관리자가 점검 시간에 실행하는 이벤트 테이블 파티션 전환. 테이블 전체를 다시 쓰는 DDL 이므로 요청 스레드가
+   * 아닌 별도 스레드에서 실행하고, 정리 작업과 겹치지 않도록 같은 임대를 잡아 끝날 때까지 연장한다.
+   * 전환 시작 여부만 예외로 알리며 결과는 로그로 남긴다.
+   */
+  @Transactional(propagation = Propagation.NOT_SUPPORTED)
+  public void partitionEventTable() {
+    if (!dataCleaner.isPartitioningEnabled()) {
+      throw new IllegalStateException("이벤트 테이블 파티션 관리가 비활성화되어 있습니다.");
+    }
+    SecurityLevelCleanupLock.Lease lease = cleanupLock.tryAcquire()
+        .orElseThrow(() -> new IllegalStateException("정리 작업이 실행 중입니다. 잠시 후 다시 시도하세요."));
+    Instant now = clock.instant();
+    Instant cutoff = now.minus(properties.getRetentionWindow());
+    Thread.ofVirtual().name("security-level-partition").start(() -> {
+      try {
+        cleanupLock.runHolding(lease, () -> dataCleaner.partitionEventTable(now, cutoff));
+        log.info("이벤트 테이블 파티션 전환을 마쳤습니다.");
+      } catch (RuntimeException ex) {
+        log.error("이벤트 테이블 파티션 전환에 실패했습니다.", ex);
+      }
+    });
   }
 
-  private SecurityLevelState toState(SecurityLevelStateEntity entity) {
-    if (entity == null) {
-      return null;
-    }
-    return new SecurityLevelState(entity.getLevel(), entity.getExpiresAt(), entity.getScore());
+  private void saveState(String tenantId, String userId, SecurityLevelState state) {
+    stateStore.save(tenantId, userId, state);
   }
 
-  private void pruneOldEvents(String tenantId, String userId) {
-    List<SecurityLevelEventEntity> events =
-        eventRepository.findByTenantIdAndUserIdOrderByOccurredAtDesc(tenantId, userId,
-            PageRequest.of(0, properties.getRetentionEvents()));
-    if (events.size() == properties.getRetentionEvents()) {
-      Instant cutoff = events.get(events.size() - 1).getOccurredAt();
-      eventRepository.deleteOlderThanForUser(tenantId, userId, cutoff);
-    }
+  private boolean isMaterialized(SecurityLevelState state) {
+    // 점수 없는 LOW 상태는 기본값과 같으므로 행을 만들지 않는다.
+    return properties.isPersistDefaultState()
+        || state.level() != SecurityLevel.LOW
+        || state.score() > 0;
   }
 }
@@ -0,0 +1,14 @@
+package multitenant.security.securitylevel.service;
+
+import java.util.Optional;
+import multitenant.security.securitylevel.SecurityLevelState;
+
+/**
+ * (테넌트, 사용자) 단위 보안 레벨 상태 저장소.
+ */
+public interface SecurityLevelStateStore {
+
+  Optional<SecurityLevelState> find(String tenantId, String userId);
+
+  void save(String tenantId, String userId, SecurityLevelState state);
+}
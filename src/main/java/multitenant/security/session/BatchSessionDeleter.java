@@ -0,0 +1,11 @@
+package multitenant.security.session;
+
+import java.util.Collection;
+
+/**
+ * 여러 세션을 Redis 왕복 한 번으로 삭제할 수 있는 세션 저장소.
+ */
+public interface BatchSessionDeleter {
+
+  void deleteAllById(Collection<String> ids);
+}
@@ -0,0 +1,243 @@
+package multitenant.security.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import multitenant.security.policy.domain.PolicyEffect;
+import multitenant.security.securitylevel.SecurityLevel;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+/**
+ * 세션 해시 값을 위한 직렬화기. 등록된 타입은 {@code [버전][타입 ID][본문]} 형태의 짧은 바이너리로 쓰고,
+ * 등록되지 않은 타입은 JDK 직렬화로 쓴다. 읽을 때는 첫 바이트로 형식을 구분하므로 JDK 직렬화 값
+ * ({@code 0xAC 0xED} 로 시작)으로 저장된 기존 세션도 그대로 읽힌다.
+ * <p>
+ * 1~15 는 기본 타입용으로 예약되어 있고, 애플리케이션 타입은 16 이상으로 {@link #register} 한다.
+ * 한 번 배포한 타입 ID 는 바꾸지 않는다.
+ * <p>
+ * {@code SecurityContext} 는 인증 방식(폼 로그인, WebAuthn)마다 다른 Spring Security 타입을 담으므로
+ * 등록하지 않고 JDK 직렬화로 둔다.
+ */
+public class CompactSessionSerializer implements RedisSerializer<Object> {
+
+  static final byte FORMAT_VERSION = 0x01;
+
+  private static final int STRING = 1;
+  private static final int LONG = 2;
+  private static final int INTEGER = 3;
+  private static final int BOOLEAN = 4;
+  private static final int STRING_SET = 5;
+  // 원소 하나는 길이 4바이트 이상을 차지한다.
+  private static final int MIN_ELEMENT_BYTES = 4;
+
+  @SuppressWarnings("unchecked")
+  private static final Class<LinkedHashSet<?>> LINKED_HASH_SET =
+      (Class<LinkedHashSet<?>>) (Class<?>) LinkedHashSet.class;
+
+  private final RedisSerializer<Object> fallback = RedisSerializer.java();
+  private final Map<Class<?>, TypeCodec<?>> byType = new ConcurrentHashMap<>();
+  private final TypeCodec<?>[] byId = new TypeCodec<?>[256];
+  private final WriteFormat writeFormat;
+
+  public CompactSessionSerializer() {
+    this(WriteFormat.COMPACT);
+  }
+
+  public CompactSessionSerializer(WriteFormat writeFormat) {
+    this.writeFormat = writeFormat;
+    registerBuiltIn(STRING, String.class, value -> true,
+        (value, out) -> out.write(value.getBytes(StandardCharsets.UTF_8)),
+        in -> new String(in.readAllBytes(), StandardCharsets.UTF_8));
+    registerBuiltIn(LONG, Long.class, value -> true,
+        (value, out) -> out.writeLong(value), DataInputStream::readLong);
+    registerBuiltIn(INTEGER, Integer.class, value -> true,
+        (value, out) -> out.writeInt(value), DataInputStream::readInt);
+    registerBuiltIn(BOOLEAN, Boolean.class, value -> true,
+        (value, out) -> out.writeBoolean(value), DataInputStream::readBoolean);
+    registerBuiltIn(STRING_SET, LINKED_HASH_SET,
+        value -> value.stream().allMatch(String.class::isInstance),
+        CompactSessionSerializer::writeStringSet, CompactSessionSerializer::readStringSet);
+    registerEnum(16, SecurityLevel.class);
+    registerEnum(17, PolicyEffect.class);
+    register(18, TenantSessionContext.class,
+        CompactSessionSerializer::writeTenantContext, CompactSessionSerializer::readTenantContext);
+  }
+
+  /**
+   * 애플리케이션 타입을 등록한다. 타입 ID 는 16~255 범위여야 한다.
+   */
+  public final <T> void register(int typeId, Class<T> type, Encoder<T> encoder, Decoder<T> decoder) {
+    if (typeId < 16 || typeId > 255) {
+      throw new IllegalArgumentException("세션 타입 ID 는 16~255 범위여야 합니다: " + typeId);
+    }
+    registerBuiltIn(typeId, type, value -> true, encoder, decoder);
+  }
+
+  public final <E extends Enum<E>> void registerEnum(int typeId, Class<E> type) {
+    register(typeId, type,
+        (value, out) -> out.write(value.name().getBytes(StandardCharsets.UTF_8)),
+        in -> Enum.valueOf(type, new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+  }
+
+  @Override
+  public byte[] serialize(Object value) throws SerializationException {
+    if (value == null) {
+      return new byte[0];
+    }
+    TypeCodec<?> codec = writeFormat == WriteFormat.COMPACT ? byType.get(value.getClass()) : null;
+    if (codec == null || !codec.accepts(value)) {
+      return fallback.serialize(value);
+    }
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+      DataOutputStream out = new DataOutputStream(bytes);
+      out.writeByte(FORMAT_VERSION);
+      out.writeByte(codec.typeId());
+      codec.write(value, out);
+      out.flush();
+      return bytes.toByteArray();
+    } catch (IOException ex) {
+      throw new SerializationException("세션 값을 직렬화할 수 없습니다: " + value.getClass(), ex);
+    }
+  }
+
+  @Override
+  public Object deserialize(byte[] bytes) throws SerializationException {
+    if (bytes == null || bytes.length == 0) {
+      return null;
+    }
+    if (bytes[0] != FORMAT_VERSION) {
+      return fallback.deserialize(bytes);
+    }
+    if (bytes.length < 2) {
+      throw new SerializationException("세션 값 형식이 올바르지 않습니다.");
+    }
+    TypeCodec<?> codec = byId[bytes[1] & 0xFF];
+    if (codec == null) {
+      throw new SerializationException("등록되지 않은 세션 타입 ID 입니다: " + (bytes[1] & 0xFF));
+    }
+    try (DataInputStream in = new DataInputStream(
+        new ByteArrayInputStream(bytes, 2, bytes.length - 2))) {
+      return codec.decoder().read(in);
+    } catch (IOException ex) {
+      throw new SerializationException("세션 값을 읽을 수 없습니다.", ex);
+    }
+  }
+
+  private <T> void registerBuiltIn(int typeId, Class<T> type, Predicate<T> accepts,
+      Encoder<T> encoder, Decoder<T> decoder) {
+    if (byId[typeId] != null) {
+      throw new IllegalStateException("이미 등록된 세션 타입 ID 입니다: " + typeId);
+    }
+    TypeCodec<T> codec = new TypeCodec<>(typeId, type, accepts, encoder, decoder);
+    byId[typeId] = codec;
+    byType.put(type, codec);
+  }
+
+  private static void writeTenantContext(TenantSessionContext value, DataOutputStream out)
+      throws IOException {
+    writeNullable(value.tenantId(), out);
+    writeNullable(value.userId(), out);
+    writeStringSet(value.groupIds(), out);
+    writeNullable(value.countryCode(), out);
+    writeNullable(value.clientIp(), out);
+  }
+
+  private static TenantSessionContext readTenantContext(DataInputStream in) throws IOException {
+    return new TenantSessionContext(readNullable(in), readNullable(in),
+        readStringSet(in), readNullable(in), readNullable(in));
+  }
+
+  private static void writeNullable(String value, DataOutputStream out) throws IOException {
+    if (value == null) {
+      out.writeInt(-1);
+      return;
+    }
+    byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(encoded.length);
+    out.write(encoded);
+  }
+
+  private static String readNullable(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      return null;
+    }
+    return readString(in, length);
+  }
+
+  private static void writeStringSet(Set<?> value, DataOutputStream out) throws IOException {
+    out.writeInt(value.size());
+    for (Object element : value) {
+      byte[] encoded = ((String) element).getBytes(StandardCharsets.UTF_8);
+      out.writeInt(encoded.length);
+      out.write(encoded);
+    }
+  }
+
+  private static LinkedHashSet<String> readStringSet(DataInputStream in) throws IOException {
+    int size = in.readInt();
+    // 손상된 입력의 원소 수만큼 미리 할당하지 않도록 남은 바이트로 가능한 개수인지 먼저 확인한다.
+    if (size < 0 || size > in.available() / MIN_ELEMENT_BYTES) {
+      throw new IOException("문자열 집합 크기가 올바르지 않습니다: " + size);
+    }
+    LinkedHashSet<String> values = new LinkedHashSet<>(Math.max(16, size * 2));
+    for (int i = 0; i < size; i++) {
+      values.add(readString(in, in.readInt()));
+    }
+    return values;
+  }
+
+  private static String readString(DataInputStream in, int length) throws IOException {
+    if (length < 0 || length > in.available()) {
+      throw new IOException("문자열 길이가 올바르지 않습니다: " + length);
+    }
+    byte[] encoded = new byte[length];
+    in.readFully(encoded);
+    return new String(encoded, StandardCharsets.UTF_8);
+  }
+
+  public enum WriteFormat {
+    /**
+     * 등록된 타입은 압축 형식으로 쓴다.
+     */
+    COMPACT,
+    /**
+     * 모든 값을 JDK 직렬화로 쓴다. 압축 형식을 읽지 못하는 노드가 남아 있는 롤링 배포 중에 사용한다.
+     */
+    JDK
+  }
+
+  @FunctionalInterface
+  public interface Encoder<T> {
+
+    void write(T value, DataOutputStream out) throws IOException;
+  }
+
+  @FunctionalInterface
+  public interface Decoder<T> {
+
+    T read(DataInputStream in) throws IOException;
+  }
+
+  private record TypeCodec<T>(int typeId, Class<T> type, Predicate<T> acceptsValue,
+                              Encoder<T> encoder, Decoder<T> decoder) {
+
+    boolean accepts(Object value) {
+      return acceptsValue.test(type.cast(value));
+    }
+
+    void write(Object value, DataOutputStream out) throws IOException {
+      encoder.write(type.cast(value), out);
+    }
+  }
+}
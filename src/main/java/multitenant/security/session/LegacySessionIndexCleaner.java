@@ -0,0 +1,59 @@
+package multitenant.security.session;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+/**
+ * 인덱스 저장소 모드에서 경량 모드로 전환한 뒤 남는 키를 정리한다.
+ * shadow 키와 분 단위 만료 집합은 TTL 로 스스로 사라지지만, 주체 인덱스 집합({namespace}:index:*)은
+ * TTL 이 없으므로 기동 시 한 번 SCAN 으로 찾아 배치 단위로 삭제한다. 세션 해시는 건드리지 않는다.
+ */
+public class LegacySessionIndexCleaner {
+
+  private static final int BATCH_SIZE = 500;
+
+  private final StringRedisTemplate redisTemplate;
+  private final String namespace;
+
+  public LegacySessionIndexCleaner(StringRedisTemplate redisTemplate, String namespace) {
+    this.redisTemplate = redisTemplate;
+    this.namespace = namespace;
+  }
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void onApplicationReady() {
+    cleanup();
+  }
+
+  public long cleanup() {
+    ScanOptions options = ScanOptions.scanOptions()
+        .match(namespace + ":index:*")
+        .count(BATCH_SIZE)
+        .build();
+    long deleted = 0;
+    List<String> batch = new ArrayList<>(BATCH_SIZE);
+    try (Cursor<String> cursor = redisTemplate.scan(options)) {
+      while (cursor.hasNext()) {
+        batch.add(cursor.next());
+        if (batch.size() >= BATCH_SIZE) {
+          deleted += delete(batch);
+        }
+      }
+    }
+    return deleted + delete(batch);
+  }
+
+  private long delete(List<String> keys) {
+    if (keys.isEmpty()) {
+      return 0;
+    }
+    Long deleted = redisTemplate.unlink(keys);
+    keys.clear();
+    return deleted == null ? 0 : deleted;
+  }
+}
@@ -0,0 +1,104 @@
+package multitenant.security.session;
+
+import java.util.Collection;
+import java.util.List;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.RedisSessionRepository;
+import org.springframework.session.events.SessionDeletedEvent;
+
+/**
+ * {@link RedisSessionRepository} 기반의 경량 세션 저장소.
+ * 세션 해시 하나와 TTL 만 유지하며, 인덱스 저장소가 추가로 관리하는 shadow 키, 분 단위 만료 집합,
+ * 주체 인덱스 집합과 keyspace 알림을 쓰지 않는다. 세션 수 제한에 필요한 테넌트/사용자 인덱스는
+ * {@code TenantSessionRegistry} 가 따로 관리한다.
+ * 원래 저장소는 삭제 이벤트를 발행하지 않으므로, 삭제 시 {@link SessionDeletedEvent} 를 직접 발행해
+ * 레지스트리 등 기존 리스너가 그대로 동작하게 한다. 이벤트의 세션에는 리스너가 쓰는 테넌트 속성만 담으며,
+ * 이 속성 조회(HMGET)와 삭제(DEL)를 파이프라인 한 번으로 보내며, 여러 세션도 한 파이프라인으로 삭제한다. 만료는 이벤트 없이 Redis TTL 로 처리된다.
+ */
+public class LightweightSessionRepository implements SessionRepository<Session>,
+    BatchSessionDeleter {
+
+  private static final String ATTRIBUTE_PREFIX = "sessionAttr:";
+  // 삭제 이벤트 리스너가 읽는 속성. 개별 tenantId 속성은 이전 방식으로 저장된 세션용이다.
+  private static final List<String> EVENT_ATTRIBUTES =
+      List.of(TenantSessionContext.ATTRIBUTE, "tenantId");
+
+  private final SessionRepository<Session> delegate;
+  private final RedisOperations<String, Object> sessionRedisOperations;
+  private final String sessionKeyPrefix;
+  private final ApplicationEventPublisher eventPublisher;
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  public LightweightSessionRepository(RedisSessionRepository delegate, String redisNamespace,
+      ApplicationEventPublisher eventPublisher) {
+    // RedisSessionRepository.RedisSession 은 패키지 전용 타입이라 Session 으로 다룬다.
+    this.delegate = (SessionRepository) delegate;
+    this.sessionRedisOperations = delegate.getSessionRedisOperations();
+    this.sessionKeyPrefix = redisNamespace + ":sessions:";
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Override
+  public Session createSession() {
+    return delegate.createSession();
+  }
+
+  @Override
+  public void save(Session session) {
+    delegate.save(session);
+  }
+
+  @Override
+  public Session findById(String id) {
+    return delegate.findById(id);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    deleteAllById(List.of(id));
+  }
+
+  /**
+   * 모든 세션의 속성 조회와 삭제를 파이프라인 한 번으로 보내고, 실제로 삭제된 세션마다 이벤트를 발행한다.
+   */
+  @Override
+  public void deleteAllById(Collection<String> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    List<String> sessionIds = List.copyOf(ids);
+    List<Object> results = sessionRedisOperations.executePipelined(new SessionCallback<Object>() {
+      @Override
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        for (String id : sessionIds) {
+          sessionRedisOperations.opsForHash().multiGet(sessionKeyPrefix + id,
+              EVENT_ATTRIBUTES.stream().map(name -> (Object) (ATTRIBUTE_PREFIX + name)).toList());
+          delegate.deleteById(id);
+        }
+        return null;
+      }
+    });
+    for (int i = 0; i < sessionIds.size() && 2 * i + 1 < results.size(); i++) {
+      if (Long.valueOf(1).equals(results.get(2 * i + 1))) {
+        eventPublisher.publishEvent(
+            new SessionDeletedEvent(this, deletedSession(sessionIds.get(i), results.get(2 * i))));
+      }
+    }
+  }
+
+  private static MapSession deletedSession(String id, Object attributes) {
+    MapSession session = new MapSession(id);
+    if (attributes instanceof List<?> values) {
+      for (int i = 0; i < values.size() && i < EVENT_ATTRIBUTES.size(); i++) {
+        session.setAttribute(EVENT_ATTRIBUTES.get(i), values.get(i));
+      }
+    }
+    return session;
+  }
+}
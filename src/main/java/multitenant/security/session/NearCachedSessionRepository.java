@@ -0,0 +1,111 @@
+package multitenant.security.session;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import org.springframework.session.MapSession;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
+
+/**
+ * {@link PipelinedSessionRepository} 앞에 {@link SessionNearCache} 를 둔다.
+ * 캐시 적중 시 저장된 스냅샷으로 {@link RedisSession} 을 만들어 Redis 에서 읽은 것과 같은 상태(변경 없음)로
+ * 돌려주므로, 이후 저장은 원래 경로 그대로 델타만 기록한다. {@code RedisSession} 생성자는 패키지 전용이라
+ * 리플렉션으로 호출하며, Spring Session 버전이 바뀌어 생성자가 없으면 기동 시점에 실패한다.
+ * 저장 시 무효화 메시지는 세션 쓰기와 같은 파이프라인으로 보내고, 캐시는 파이프라인이 성공한 뒤에만
+ * 갱신한다. 조회 이후 다른 노드의 무효화나 이 노드의 다른 저장·삭제가 있었다면 이 요청의 상태로 덮어쓰지
+ * 않고 항목을 지운다.
+ */
+public class NearCachedSessionRepository extends PipelinedSessionRepository {
+
+  private static final Constructor<RedisSession> SESSION_CONSTRUCTOR = sessionConstructor();
+
+  private final SessionNearCache nearCache;
+  // 세션 ID 가 바뀐 경우 이전 ID 의 캐시를 지우기 위해 조회 시점의 ID 와 무효화 순번을 기억한다.
+  private final Map<RedisSession, Loaded> loaded =
+      Collections.synchronizedMap(new WeakHashMap<>());
+
+  public NearCachedSessionRepository(RedisIndexedSessionRepository delegate,
+      String redisNamespace, SessionNearCache nearCache) {
+    super(delegate, redisNamespace);
+    this.nearCache = nearCache;
+  }
+
+  @Override
+  public RedisSession findById(String id) {
+    long stamp = nearCache.stamp();
+    MapSession snapshot = nearCache.get(id);
+    RedisSession session = snapshot != null ? restore(snapshot) : super.findById(id);
+    if (session != null) {
+      if (snapshot == null) {
+        nearCache.put(session, stamp);
+      }
+      loaded.put(session, new Loaded(session.getId(), stamp));
+    }
+    return session;
+  }
+
+  @Override
+  protected void afterSave(RedisSession session) {
+    Loaded previous = loaded.get(session);
+    if (previous != null && !previous.id().equals(session.getId())) {
+      nearCache.invalidate(previous.id());
+      publishInvalidation(previous.id());
+    }
+    publishInvalidation(session.getId());
+  }
+
+  @Override
+  protected void afterPipelineExecuted(RedisSession session) {
+    Loaded previous = loaded.remove(session);
+    nearCache.putSaved(session, previous != null ? previous.stamp() : nearCache.stamp());
+  }
+
+  @Override
+  public void deleteById(String id) {
+    nearCache.invalidate(id);
+    super.deleteById(id);
+    publishInvalidation(id);
+  }
+
+  @Override
+  public void deleteAllById(Collection<String> ids) {
+    ids.forEach(nearCache::invalidate);
+    super.deleteAllById(ids);
+  }
+
+  @Override
+  protected void afterDelete(String sessionId) {
+    publishInvalidation(sessionId);
+  }
+
+  private void publishInvalidation(String sessionId) {
+    sessionRedisOperations().convertAndSend(nearCache.getChannel(),
+        nearCache.invalidationMessage(sessionId));
+  }
+
+  private RedisSession restore(MapSession snapshot) {
+    try {
+      return SESSION_CONSTRUCTOR.newInstance(delegate(), snapshot, false);
+    } catch (InstantiationException | IllegalAccessException | InvocationTargetException ex) {
+      throw new IllegalStateException("캐시된 세션을 복원할 수 없습니다.", ex);
+    }
+  }
+
+  private static Constructor<RedisSession> sessionConstructor() {
+    try {
+      Constructor<RedisSession> constructor = RedisSession.class.getDeclaredConstructor(
+          RedisIndexedSessionRepository.class, MapSession.class, boolean.class);
+      constructor.setAccessible(true);
+      return constructor;
+    } catch (NoSuchMethodException ex) {
+      throw new IllegalStateException("지원하지 않는 Spring Session 버전입니다.", ex);
+    }
+  }
+
+  private record Loaded(String id, long stamp) {
+  }
+}
@@ -0,0 +1,168 @@
+package multitenant.security.session;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.session.FindByIndexNameSessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
+
+/**
+ * {@link RedisIndexedSessionRepository} 의 저장을 Redis 파이프라인 한 번으로 보낸다.
+ * 요청 종료 시 저장 경로(HMSET 델타, 주체 인덱스, 만료 집합, shadow 키, EXPIRE, 생성 이벤트 발행)는
+ * 응답 값을 사용하지 않는 쓰기뿐이므로, 같은 연결에 모아 한 번의 왕복으로 처리한다.
+ * 세션 조회는 원래도 HGETALL 한 번이므로 그대로 위임한다.
+ * 여러 세션의 삭제는 {@link #deleteAllById} 로 파이프라인 한 번에 보낸다.
+ */
+public class PipelinedSessionRepository implements FindByIndexNameSessionRepository<RedisSession>,
+    BatchSessionDeleter {
+
+  private static final String NO_SUCH_KEY = "ERR no such key";
+  private static final String MAX_INACTIVE_INTERVAL = "maxInactiveInterval";
+  // 원래 저장소가 삭제한 세션 해시를 남겨 두는 시간과 같다.
+  private static final Duration DELETED_SESSION_TTL = Duration.ofMinutes(5);
+
+  private final RedisIndexedSessionRepository delegate;
+  private final RedisOperations<String, Object> sessionRedisOperations;
+  private final String sessionKeyPrefix;
+  private final LongAdder pipelinedSaves = new LongAdder();
+  private final LongAdder pipelinedDeletes = new LongAdder();
+
+  public PipelinedSessionRepository(RedisIndexedSessionRepository delegate,
+      String redisNamespace) {
+    this.delegate = delegate;
+    this.sessionRedisOperations = delegate.getSessionRedisOperations();
+    this.sessionKeyPrefix = redisNamespace + ":sessions:";
+  }
+
+  @Override
+  public RedisSession createSession() {
+    return delegate.createSession();
+  }
+
+  @Override
+  public void save(RedisSession session) {
+    try {
+      sessionRedisOperations.executePipelined(new SessionCallback<Object>() {
+        @Override
+        public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+          delegate.save(session);
+          afterSave(session);
+          return null;
+        }
+      });
+      pipelinedSaves.increment();
+    } catch (RedisPipelineException ex) {
+      // 세션 ID 변경 시 이전 키가 이미 만료되어 RENAME 이 실패하는 경우는 원래 저장소도 무시한다.
+      if (!onlyMissingKeyErrors(ex)) {
+        throw ex;
+      }
+    }
+    afterPipelineExecuted(session);
+  }
+
+  @Override
+  public RedisSession findById(String id) {
+    return delegate.findById(id);
+  }
+
+  @Override
+  public void deleteById(String id) {
+    delegate.deleteById(id);
+  }
+
+  /**
+   * 원래 저장소의 삭제처럼 세션을 즉시 만료 상태로 바꾸고 shadow 키를 지우되, 세션을 읽지 않고 모든 세션의
+   * 명령을 파이프라인 한 번으로 보낸다. 주체 인덱스·만료 집합 정리와 {@code SessionDeletedEvent} 발행은
+   * shadow 키 삭제 keyspace 알림을 받은 원래 저장소가 남아 있는 해시를 읽어 처리한다.
+   * 이미 사라진 세션에는 만료 필드만 가진 해시가 잠시 남았다가 TTL 로 지워진다.
+   */
+  @Override
+  public void deleteAllById(Collection<String> ids) {
+    if (ids.isEmpty()) {
+      return;
+    }
+    sessionRedisOperations.executePipelined(new SessionCallback<Object>() {
+      @Override
+      public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+        for (String id : ids) {
+          String sessionKey = sessionKeyPrefix + id;
+          sessionRedisOperations.opsForHash().put(sessionKey, MAX_INACTIVE_INTERVAL, 0);
+          sessionRedisOperations.expire(sessionKey, DELETED_SESSION_TTL);
+          sessionRedisOperations.delete(sessionKeyPrefix + "expires:" + id);
+          afterDelete(id);
+        }
+        return null;
+      }
+    });
+    pipelinedDeletes.increment();
+  }
+
+  @Override
+  public Map<String, RedisSession> findByIndexNameAndIndexValue(String indexName,
+      String indexValue) {
+    return delegate.findByIndexNameAndIndexValue(indexName, indexValue);
+  }
+
+  /**
+   * 저장과 같은 파이프라인 안에서 추가로 보낼 쓰기가 있으면 하위 클래스에서 구현한다.
+   * 아직 전송 전이므로 쓰기가 성공했다고 가정하는 작업은 {@link #afterPipelineExecuted} 에서 한다.
+   */
+  protected void afterSave(RedisSession session) {
+  }
+
+  /**
+   * 파이프라인이 오류 없이 실행된 뒤 호출된다.
+   */
+  protected void afterPipelineExecuted(RedisSession session) {
+  }
+
+  /**
+   * {@link #deleteAllById} 의 파이프라인 안에서 세션마다 호출된다.
+   */
+  protected void afterDelete(String sessionId) {
+  }
+
+  protected RedisIndexedSessionRepository delegate() {
+    return delegate;
+  }
+
+  protected RedisOperations<String, Object> sessionRedisOperations() {
+    return sessionRedisOperations;
+  }
+
+  public long pipelinedSaveCount() {
+    return pipelinedSaves.sum();
+  }
+
+  public long pipelinedDeleteCount() {
+    return pipelinedDeletes.sum();
+  }
+
+  private static boolean onlyMissingKeyErrors(RedisPipelineException ex) {
+    // 명령은 모두 전송되어 각자 실행되며, 실패한 명령의 예외만 결과 목록이나 원인으로 전달된다.
+    List<Throwable> errors = ex.getPipelineResult().stream()
+        .filter(Throwable.class::isInstance)
+        .map(Throwable.class::cast)
+        .toList();
+    if (errors.isEmpty()) {
+      return ex.getCause() != null && hasMessage(ex.getCause(), NO_SUCH_KEY);
+    }
+    return errors.stream().allMatch(error -> hasMessage(error, NO_SUCH_KEY));
+  }
+
+  private static boolean hasMessage(Throwable error, String text) {
+    for (Throwable current = error; current != null; current = current.getCause()) {
+      if (current.getMessage() != null && current.getMessage().contains(text)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
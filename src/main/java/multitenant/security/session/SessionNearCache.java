@@ -0,0 +1,276 @@
+package multitenant.security.session;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.MapSession;
+import org.springframework.session.Session;
+import org.springframework.session.events.SessionDestroyedEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * 짧은 시간 안에 같은 세션을 반복해서 읽는 요청 묶음을 위해 세션 스냅샷을 노드 메모리에 보관한다.
+ * 다른 노드의 저장·삭제는 Redis 채널({@code session.near-cache.channel})로 전달받아 제거하고, 만료·삭제
+ * keyspace 알림으로 발행되는 {@link SessionDestroyedEvent} 에서도 제거한다. 메시지가 유실되더라도
+ * {@code session.near-cache.ttl} 이 지나면 Redis 에서 다시 읽는다.
+ * 전체 항목 수와 테넌트별 항목 수가 상한에 이르면 새 세션은 캐시하지 않고 Redis 에서 읽는다.
+ * 속성 값은 세션 직렬화기로 직렬화해 보관하고 조회할 때마다 역직렬화하므로, 요청마다 독립된 값을 받는다.
+ */
+@Component
+@ConditionalOnProperty(prefix = "session.near-cache", name = "enabled", havingValue = "true")
+public class SessionNearCache implements MessageListener {
+
+  private static final String NO_TENANT = "";
+
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final Map<String, AtomicInteger> entriesPerTenant = new ConcurrentHashMap<>();
+  // 조회 이후 같은 세션이 저장·삭제됐는지 판단하기 위해 노드 안팎의 최근 무효화 순번을 남긴다.
+  private final Map<String, Invalidation> recentInvalidations = new ConcurrentHashMap<>();
+  private final AtomicLong invalidationSequence = new AtomicLong();
+  private final RedisSerializer<Object> serializer;
+  private final Clock clock;
+  private final Duration ttl;
+  private final int maxEntries;
+  private final int maxEntriesPerTenant;
+  private final String channel;
+  private final String nodeId = UUID.randomUUID().toString();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder invalidations = new LongAdder();
+  private final LongAdder staleWrites = new LongAdder();
+
+  public SessionNearCache(
+      @Qualifier("springSessionDefaultRedisSerializer") RedisSerializer<Object> serializer,
+      Clock clock,
+      @Value("${session.near-cache.ttl:PT2S}") Duration ttl,
+      @Value("${session.near-cache.max-entries:10000}") int maxEntries,
+      @Value("${session.near-cache.max-entries-per-tenant:2000}") int maxEntriesPerTenant,
+      @Value("${session.near-cache.channel:octatco:sso:session-near-cache}") String channel) {
+    this.serializer = serializer;
+    this.clock = clock;
+    this.ttl = ttl;
+    this.maxEntries = maxEntries;
+    this.maxEntriesPerTenant = maxEntriesPerTenant;
+    this.channel = channel;
+  }
+
+  /**
+   * 유효한 스냅샷으로 새 세션 객체를 만들어 돌려준다. 속성 값까지 역직렬화한 복사본이므로 동시 요청이
+   * 서로의 변경을 보지 않는다.
+   */
+  public MapSession get(String sessionId) {
+    Entry entry = entries.get(sessionId);
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    MapSession session = entry.validUntil().isBefore(clock.instant()) ? null : restore(entry);
+    if (session == null || session.isExpired()) {
+      evict(sessionId);
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return session;
+  }
+
+  /**
+   * 세션을 읽기 직전의 무효화 순번. {@link #put(Session, long)}, {@link #putSaved(Session, long)} 에
+   * 그대로 넘긴다.
+   */
+  public long stamp() {
+    return invalidationSequence.get();
+  }
+
+  /**
+   * Redis 에서 읽은 세션을 담는다. {@code stamp} 이후 이 노드나 다른 노드에서 같은 세션이 저장·삭제됐다면
+   * 읽은 상태가 오래된 것이므로 저장하지 않고 기존 항목도 지운다.
+   */
+  public void put(Session session, long stamp) {
+    store(session, stamp, false);
+  }
+
+  /**
+   * 이 노드에서 저장을 마친 세션을 담는다. 저장 자체를 무효화로 기록하므로, 같은 세션을 먼저 읽고 나중에 저장하는
+   * 다른 요청은 자기 복사본으로 이 상태를 덮어쓰지 못한다.
+   */
+  public void putSaved(Session session, long stamp) {
+    store(session, stamp, true);
+  }
+
+  /**
+   * 이 노드에서 삭제·로그아웃된 세션을 지우고 무효화로 기록해, 진행 중인 요청이 저장 후 되살리지 못하게 한다.
+   */
+  public void invalidate(String sessionId) {
+    recordInvalidation(sessionId);
+    evict(sessionId);
+  }
+
+  public void evict(String sessionId) {
+    entries.computeIfPresent(sessionId, (id, previous) -> {
+      release(previous.tenantId());
+      return null;
+    });
+  }
+
+  /**
+   * 다른 노드에 보낼 무효화 메시지. 자신이 보낸 메시지는 수신 시 무시한다.
+   */
+  public String invalidationMessage(String sessionId) {
+    return nodeId + ":" + sessionId;
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    Object body = serializer.deserialize(message.getBody());
+    if (!(body instanceof String text)) {
+      return;
+    }
+    int separator = text.indexOf(':');
+    if (separator < 0 || text.substring(0, separator).equals(nodeId)) {
+      return;
+    }
+    invalidate(text.substring(separator + 1));
+    invalidations.increment();
+  }
+
+  @EventListener
+  public void onSessionDestroyed(SessionDestroyedEvent event) {
+    invalidate(event.getSessionId());
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public long invalidationCount() {
+    return invalidations.sum();
+  }
+
+  public long staleWriteCount() {
+    return staleWrites.sum();
+  }
+
+  private void store(Session session, long stamp, boolean saved) {
+    String sessionId = session.getId();
+    String tenantId = tenantOf(session);
+    Entry entry = new Entry(snapshot(session), tenantId, clock.instant().plus(ttl));
+    entries.compute(sessionId, (id, previous) -> {
+      Invalidation invalidation = recentInvalidations.get(id);
+      boolean stale = invalidation != null && invalidation.sequence() > stamp;
+      if (saved) {
+        recordInvalidation(id);
+      }
+      if (stale) {
+        staleWrites.increment();
+        if (previous != null) {
+          release(previous.tenantId());
+        }
+        return null;
+      }
+      if (previous == null) {
+        if (entries.size() >= maxEntries || !reserve(tenantId)) {
+          return null;
+        }
+      } else if (!previous.tenantId().equals(tenantId)) {
+        if (!reserve(tenantId)) {
+          release(previous.tenantId());
+          return null;
+        }
+        release(previous.tenantId());
+      }
+      return entry;
+    });
+  }
+
+  private void recordInvalidation(String sessionId) {
+    Instant now = clock.instant();
+    recentInvalidations.put(sessionId,
+        new Invalidation(invalidationSequence.incrementAndGet(), now));
+    if (recentInvalidations.size() > maxEntries) {
+      // 요청 처리 시간보다 충분히 긴 TTL 이 지난 기록은 더 이상 경합을 판단하는 데 쓰이지 않는다.
+      Instant cutoff = now.minus(ttl);
+      recentInvalidations.values().removeIf(invalidation -> invalidation.at().isBefore(cutoff));
+    }
+  }
+
+  private Snapshot snapshot(Session session) {
+    Map<String, byte[]> attributes = new HashMap<>();
+    for (String name : session.getAttributeNames()) {
+      Object value = session.getAttribute(name);
+      if (value != null) {
+        attributes.put(name, serializer.serialize(value));
+      }
+    }
+    return new Snapshot(session.getId(), session.getCreationTime(), session.getLastAccessedTime(),
+        session.getMaxInactiveInterval(), attributes);
+  }
+
+  private MapSession restore(Entry entry) {
+    Snapshot snapshot = entry.snapshot();
+    MapSession session = new MapSession(snapshot.id());
+    session.setCreationTime(snapshot.creationTime());
+    session.setLastAccessedTime(snapshot.lastAccessedTime());
+    session.setMaxInactiveInterval(snapshot.maxInactiveInterval());
+    snapshot.attributes().forEach(
+        (name, value) -> session.setAttribute(name, serializer.deserialize(value)));
+    return session;
+  }
+
+  private boolean reserve(String tenantId) {
+    AtomicInteger count = entriesPerTenant.computeIfAbsent(tenantId, key -> new AtomicInteger());
+    if (count.incrementAndGet() > maxEntriesPerTenant) {
+      count.decrementAndGet();
+      return false;
+    }
+    return true;
+  }
+
+  private void release(String tenantId) {
+    AtomicInteger count = entriesPerTenant.get(tenantId);
+    if (count != null) {
+      count.decrementAndGet();
+    }
+  }
+
+  private static String tenantOf(Session session) {
+    TenantSessionContext context = TenantSessionContext.from(session);
+    return context == null || context.tenantId() == null ? NO_TENANT : context.tenantId();
+  }
+
+  private record Entry(Snapshot snapshot, String tenantId, Instant validUntil) {
+  }
+
+  private record Snapshot(String id, Instant creationTime, Instant lastAccessedTime,
+      Duration maxInactiveInterval, Map<String, byte[]> attributes) {
+  }
+
+  private record Invalidation(long sequence, Instant at) {
+  }
+}
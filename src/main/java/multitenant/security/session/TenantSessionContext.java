@@ -0,0 +1,85 @@
+package multitenant.security.session;
+
+import jakarta.servlet.http.HttpSession;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import org.springframework.session.Session;
+
+/**
+ * 정책 평가에 필요한 세션 값(테넌트, 사용자, 그룹, 국가, IP)을 하나로 묶은 세션 속성.
+ * {@link CompactSessionSerializer} 에 타입 ID 로 등록되어 한 번에 짧은 바이너리로 읽고 쓴다.
+ * 이전 방식으로 저장된 개별 속성은 읽을 때만 사용하며, 다시 저장할 때 묶음 속성으로 옮기고 지운다.
+ */
+public record TenantSessionContext(
+    String tenantId,
+    String userId,
+    Set<String> groupIds,
+    String countryCode,
+    String clientIp
+) implements Serializable {
+
+  public static final String ATTRIBUTE = "tenantContext";
+
+  private static final List<String> LEGACY_ATTRIBUTES =
+      List.of("tenantId", "userId", "groupIds", "countryCode", "clientIp");
+
+  public TenantSessionContext {
+    groupIds = groupIds == null ? Set.of()
+        : Collections.unmodifiableSet(new LinkedHashSet<>(groupIds));
+  }
+
+  /**
+   * 묶음 속성을 읽고, 없으면 이전 방식으로 저장된 개별 속성에서 만든다. 아무 값도 없으면 null.
+   */
+  public static TenantSessionContext read(HttpSession session) {
+    return session == null ? null : read(session::getAttribute);
+  }
+
+  /**
+   * 세션 저장소 이벤트처럼 {@link HttpSession} 이 없는 곳에서 읽는다.
+   */
+  public static TenantSessionContext from(Session session) {
+    return session == null ? null : read(session::getAttribute);
+  }
+
+  private static TenantSessionContext read(Function<String, Object> attributes) {
+    if (attributes.apply(ATTRIBUTE) instanceof TenantSessionContext context) {
+      return context;
+    }
+    String tenantId = asString(attributes.apply("tenantId"));
+    String userId = asString(attributes.apply("userId"));
+    Object groups = attributes.apply("groupIds");
+    String countryCode = asString(attributes.apply("countryCode"));
+    String clientIp = asString(attributes.apply("clientIp"));
+    if (tenantId == null && userId == null && groups == null && countryCode == null
+        && clientIp == null) {
+      return null;
+    }
+    Set<String> groupIds = new LinkedHashSet<>();
+    if (groups instanceof Collection<?> collection) {
+      collection.stream().map(TenantSessionContext::asString).filter(g -> g != null)
+          .forEach(groupIds::add);
+    } else if (groups != null) {
+      groupIds.add(groups.toString());
+    }
+    return new TenantSessionContext(tenantId, userId, groupIds, countryCode, clientIp);
+  }
+
+  public void store(HttpSession session) {
+    session.setAttribute(ATTRIBUTE, this);
+    for (String legacy : LEGACY_ATTRIBUTES) {
+      if (session.getAttribute(legacy) != null) {
+        session.removeAttribute(legacy);
+      }
+    }
+  }
+
+  private static String asString(Object value) {
+    return value == null ? null : value.toString();
+  }
+}
@@ -0,0 +1,22 @@
+package multitenant.security.sessionlimit.config;
+
+import multitenant.security.sessionlimit.service.TenantSessionLimitSync;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+@Configuration
+public class TenantSessionLimitSyncConfig {
+
+  @Bean
+  public RedisMessageListenerContainer tenantSessionLimitListenerContainer(
+      RedisConnectionFactory redisConnectionFactory, TenantSessionLimitSync tenantSessionLimitSync) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(redisConnectionFactory);
+    container.addMessageListener(tenantSessionLimitSync,
+        new ChannelTopic(tenantSessionLimitSync.getChannel()));
+    return container;
+  }
+}
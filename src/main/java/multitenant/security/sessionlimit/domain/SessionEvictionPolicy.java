@@ -0,0 +1,10 @@
+package multitenant.security.sessionlimit.domain;
+
+/**
+ * 최대 세션 수를 넘었을 때의 처리 방식.
+ * OLDEST_FIRST 는 가장 오래 접근하지 않은 세션을 정리하고, REJECT_NEW 는 새 세션을 거부한다.
+ */
+public enum SessionEvictionPolicy {
+  OLDEST_FIRST,
+  REJECT_NEW
+}
@@ -0,0 +1,11 @@
+package multitenant.security.sessionlimit.domain;
+
+/**
+ * 세션 ID 재발급 시점.
+ * ON_LOGIN 은 인증 시 Spring Security 의 세션 고정 보호에 맡기고 필터에서는 재발급하지 않는다.
+ */
+public enum SessionRotationStrategy {
+  ON_LOGIN,
+  ON_SECURITY_LEVEL_ESCALATION,
+  INTERVAL
+}
@@ -2,6 +2,8 @@ package multitenant.security.sessionlimit.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 
@@ -16,12 +18,29 @@ public class TenantSessionLimit {
   @Column(name = "max_sessions", nullable = false)
   private int maxSessions;
 
+  @Column(name = "max_sessions_per_user", nullable = false)
+  private int maxSessionsPerUser;
+
+  @Enumerated(EnumType.STRING)
+  @Column(name = "eviction_policy", nullable = false, length = 32)
+  private SessionEvictionPolicy evictionPolicy = SessionEvictionPolicy.OLDEST_FIRST;
+
   @Column(name = "max_idle_seconds", nullable = false)
   private int maxIdleSeconds;
 
   @Column(name = "max_duration_seconds", nullable = false)
   private int maxDurationSeconds;
 
+  @Enumerated(EnumType.STRING)
+  @Column(name = "rotation_strategy", nullable = false, length = 32)
+  private SessionRotationStrategy rotationStrategy = SessionRotationStrategy.ON_LOGIN;
+
+  @Column(name = "rotation_interval_seconds", nullable = false)
+  private int rotationIntervalSeconds;
+
+  @Column(name = "rotation_request_count", nullable = false)
+  private int rotationRequestCount;
+
   protected TenantSessionLimit() {
   }
 
@@ -49,6 +68,22 @@ public class TenantSessionLimit {
     this.maxSessions = maxSessions;
   }
 
+  public int getMaxSessionsPerUser() {
+    return maxSessionsPerUser;
+  }
+
+  public void setMaxSessionsPerUser(int maxSessionsPerUser) {
+    this.maxSessionsPerUser = maxSessionsPerUser;
+  }
+
+  public SessionEvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  public void setEvictionPolicy(SessionEvictionPolicy evictionPolicy) {
+    this.evictionPolicy = evictionPolicy;
+  }
+
   public int getMaxIdleSeconds() {
     return maxIdleSeconds;
   }
@@ -64,4 +99,28 @@ public class TenantSessionLimit {
   public void setMaxDurationSeconds(int maxDurationSeconds) {
     this.maxDurationSeconds = maxDurationSeconds;
   }
+
+  public SessionRotationStrategy getRotationStrategy() {
+    return rotationStrategy;
+  }
+
+  public void setRotationStrategy(SessionRotationStrategy rotationStrategy) {
+    this.rotationStrategy = rotationStrategy;
+  }
+
+  public int getRotationIntervalSeconds() {
+    return rotationIntervalSeconds;
+  }
+
+  public void setRotationIntervalSeconds(int rotationIntervalSeconds) {
+    this.rotationIntervalSeconds = rotationIntervalSeconds;
+  }
+
+  public int getRotationRequestCount() {
+    return rotationRequestCount;
+  }
+
+  public void setRotationRequestCount(int rotationRequestCount) {
+    this.rotationRequestCount = rotationRequestCount;
+  }
 }
@@ -0,0 +1,4 @@
+package multitenant.security.sessionlimit.domain;
+
+public record TenantSessionLimitChangedEvent(String tenantId) {
+}
@@ -0,0 +1,123 @@
+package multitenant.security.sessionlimit.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+import multitenant.security.session.BatchSessionDeleter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * 최대 세션 수 초과로 정리 대상이 된 세션을 요청 스레드 밖에서 삭제한다.
+ * 정리 여부는 레지스트리에서 이미 동기적으로 결정되었으므로 여기서는 세션 저장소 삭제만 수행한다.
+ * 저장소가 {@link BatchSessionDeleter} 이면 한 배치를 Redis 파이프라인 한 번으로 삭제하고, 아니면 세션마다
+ * {@link SessionRepository#deleteById} 를 호출한다. 실패한 삭제는 기록하고 집계한다.
+ */
+@Component
+public class SessionEvictionQueue {
+
+  private static final Logger log = LoggerFactory.getLogger(SessionEvictionQueue.class);
+
+  private final SessionRepository<? extends Session> sessionRepository;
+  private final BlockingQueue<String> pending;
+  private final int batchSize;
+  private final LongAdder evicted = new LongAdder();
+  private final LongAdder evictedInline = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  public SessionEvictionQueue(SessionRepository<? extends Session> sessionRepository,
+      @Value("${session.limit.eviction.capacity:10000}") int capacity,
+      @Value("${session.limit.eviction.batch-size:100}") int batchSize) {
+    this.sessionRepository = sessionRepository;
+    this.pending = new LinkedBlockingQueue<>(Math.max(1, capacity));
+    this.batchSize = Math.max(1, batchSize);
+  }
+
+  /**
+   * 삭제 대상을 큐에 넣는다. 큐가 가득 차면 유실되지 않도록 호출 스레드에서 바로 삭제한다.
+   */
+  public void enqueue(Collection<String> sessionIds) {
+    for (String sessionId : sessionIds) {
+      if (!pending.offer(sessionId)) {
+        delete(sessionId);
+        evictedInline.increment();
+      }
+    }
+  }
+
+  @Scheduled(fixedDelayString = "${session.limit.eviction.flush-interval:PT0.2S}")
+  public void flush() {
+    Set<String> batch = new LinkedHashSet<>();
+    while (true) {
+      batch.clear();
+      while (batch.size() < batchSize) {
+        String sessionId = pending.poll();
+        if (sessionId == null) {
+          break;
+        }
+        batch.add(sessionId);
+      }
+      if (batch.isEmpty()) {
+        return;
+      }
+      deleteAll(batch);
+    }
+  }
+
+  public int pendingCount() {
+    return pending.size();
+  }
+
+  public long evictedCount() {
+    return evicted.sum();
+  }
+
+  public long evictedInlineCount() {
+    return evictedInline.sum();
+  }
+
+  public long failedCount() {
+    return failed.sum();
+  }
+
+  @PreDestroy
+  public void drain() {
+    flush();
+  }
+
+  private void deleteAll(Set<String> batch) {
+    if (!(sessionRepository instanceof BatchSessionDeleter deleter)) {
+      batch.forEach(this::delete);
+      return;
+    }
+    try {
+      deleter.deleteAllById(List.copyOf(batch));
+      evicted.add(batch.size());
+    } catch (RuntimeException ex) {
+      // 레지스트리에서는 이미 제거되었으므로 세션은 유휴 만료까지 남는다.
+      failed.add(batch.size());
+      log.warn("세션 {}건을 삭제하지 못했습니다.", batch.size(), ex);
+    }
+  }
+
+  private void delete(String sessionId) {
+    try {
+      sessionRepository.deleteById(sessionId);
+      evicted.increment();
+    } catch (RuntimeException ex) {
+      // 레지스트리에서는 이미 제거되었으므로 세션은 유휴 만료까지 남는다.
+      failed.increment();
+      log.warn("세션 {} 을(를) 삭제하지 못했습니다.", sessionId, ex);
+    }
+  }
+}
@@ -1,18 +1,43 @@
 package multitenant.security.sessionlimit.service;
 
 import java.time.Duration;
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
 
-public record SessionLimitSettings(int maxSessions, Duration maxIdle, Duration maxDuration) {
+public record SessionLimitSettings(int maxSessions, int maxSessionsPerUser,
+                                   SessionEvictionPolicy evictionPolicy, Duration maxIdle,
+                                   Duration maxDuration, SessionRotationStrategy rotationStrategy,
+                                   Duration rotationInterval, int rotationRequestCount) {
 
   public SessionLimitSettings {
+    maxSessions = Math.max(0, maxSessions);
+    maxSessionsPerUser = Math.max(0, maxSessionsPerUser);
+    evictionPolicy = evictionPolicy == null ? SessionEvictionPolicy.OLDEST_FIRST : evictionPolicy;
     maxIdle = maxIdle == null ? Duration.ZERO : maxIdle;
     maxDuration = maxDuration == null ? Duration.ZERO : maxDuration;
+    rotationStrategy = rotationStrategy == null ? SessionRotationStrategy.ON_LOGIN
+        : rotationStrategy;
+    rotationInterval = rotationInterval == null ? Duration.ZERO : rotationInterval;
+    rotationRequestCount = Math.max(0, rotationRequestCount);
+  }
+
+  public SessionLimitSettings(int maxSessions, Duration maxIdle, Duration maxDuration) {
+    this(maxSessions, 0, SessionEvictionPolicy.OLDEST_FIRST, maxIdle, maxDuration,
+        SessionRotationStrategy.ON_LOGIN, Duration.ZERO, 0);
   }
 
   public boolean hasMaxSessionsLimit() {
     return maxSessions > 0;
   }
 
+  public boolean hasMaxSessionsPerUserLimit() {
+    return maxSessionsPerUser > 0;
+  }
+
+  public boolean hasAnySessionCountLimit() {
+    return hasMaxSessionsLimit() || hasMaxSessionsPerUserLimit();
+  }
+
   public boolean hasIdleLimit() {
     return maxIdle != null && !maxIdle.isNegative() && !maxIdle.isZero();
   }
@@ -20,4 +45,12 @@ public record SessionLimitSettings(int maxSessions, Duration maxIdle, Duration m
   public boolean hasDurationLimit() {
     return maxDuration != null && !maxDuration.isNegative() && !maxDuration.isZero();
   }
+
+  public boolean hasRotationInterval() {
+    return !rotationInterval.isNegative() && !rotationInterval.isZero();
+  }
+
+  public boolean hasRotationRequestCount() {
+    return rotationRequestCount > 0;
+  }
 }
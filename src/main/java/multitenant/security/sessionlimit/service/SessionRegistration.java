@@ -0,0 +1,17 @@
+package multitenant.security.sessionlimit.service;
+
+import java.util.List;
+
+/**
+ * 세션 레지스트리 등록 결과. accepted 가 false 면 REJECT_NEW 정책으로 새 세션이 거부된 것이다.
+ */
+public record SessionRegistration(boolean accepted, List<String> evictedSessionIds) {
+
+  public SessionRegistration {
+    evictedSessionIds = evictedSessionIds == null ? List.of() : List.copyOf(evictedSessionIds);
+  }
+
+  public static SessionRegistration rejected() {
+    return new SessionRegistration(false, List.of());
+  }
+}
@@ -0,0 +1,55 @@
+package multitenant.security.sessionlimit.service;
+
+import java.time.Duration;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * 요청 수 기준 세션 ID 교체에 쓰는 세션별 요청 카운터.
+ * 세션 속성으로 세면 요청마다 세션 저장(HSET 과 만료 인덱스 갱신)이 일어나므로 세션 해시 밖의 Redis 키에
+ * INCR 한다. 키 TTL 을 세션 유휴 시간에 맞춰 두어 세션이 만료되면 카운터도 함께 사라진다.
+ */
+@Component
+public class SessionRotationCounter {
+
+  // KEYS: 카운터 키 / ARGV: TTL(ms)
+  private static final RedisScript<Long> INCREMENT = new DefaultRedisScript<>("""
+      local count = redis.call('INCR', KEYS[1])
+      redis.call('PEXPIRE', KEYS[1], ARGV[1])
+      return count
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final String keyPrefix;
+
+  public SessionRotationCounter(StringRedisTemplate redisTemplate,
+      @Value("${session.limit.rotation.key-prefix:octatco:sso:session-rotation:}")
+      String keyPrefix) {
+    this.redisTemplate = redisTemplate;
+    this.keyPrefix = keyPrefix;
+  }
+
+  /**
+   * 요청 수를 하나 늘리고 늘어난 값을 돌려준다.
+   */
+  public long increment(String sessionId, Duration ttl) {
+    Long count = redisTemplate.execute(INCREMENT, List.of(key(sessionId)),
+        Long.toString(Math.max(1, ttl.toMillis())));
+    return count == null ? 0 : count;
+  }
+
+  /**
+   * 세션 ID 를 교체한 뒤 이전 ID 의 카운터를 지운다. 새 ID 는 0 부터 센다.
+   */
+  public void reset(String sessionId) {
+    redisTemplate.delete(key(sessionId));
+  }
+
+  private String key(String sessionId) {
+    return keyPrefix + sessionId;
+  }
+}
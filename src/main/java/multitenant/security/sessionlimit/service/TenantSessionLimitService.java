@@ -1,11 +1,21 @@
 package multitenant.security.sessionlimit.service;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
 import multitenant.security.sessionlimit.domain.TenantSessionLimit;
+import multitenant.security.sessionlimit.domain.TenantSessionLimitChangedEvent;
 import multitenant.security.sessionlimit.repository.TenantSessionLimitRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
@@ -13,27 +23,65 @@ import org.springframework.util.StringUtils;
 @Transactional
 public class TenantSessionLimitService {
 
-  public static final String SESSION_INDEX_KEY_ATTRIBUTE =
-      org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME;
-
   private static final int DEFAULT_MAX_SESSIONS = 0;
   private static final Duration DEFAULT_MAX_IDLE = Duration.ofSeconds(1800);
   private static final Duration DEFAULT_MAX_DURATION = Duration.ZERO;
 
   private final TenantSessionLimitRepository repository;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Clock clock;
+  private final Duration cacheTtl;
+  private final Map<String, CachedSettings> cache = new ConcurrentHashMap<>();
+  private final AtomicLong generation = new AtomicLong();
 
   public TenantSessionLimitService(TenantSessionLimitRepository repository) {
+    this(repository, event -> {
+    }, Clock.systemUTC(), Duration.ofMinutes(5));
+  }
+
+  @Autowired
+  public TenantSessionLimitService(TenantSessionLimitRepository repository,
+      ApplicationEventPublisher eventPublisher, Clock clock,
+      @Value("${session.limit.cache.ttl:PT5M}") Duration cacheTtl) {
     this.repository = repository;
+    this.eventPublisher = eventPublisher;
+    this.clock = clock;
+    this.cacheTtl = cacheTtl;
   }
 
-  @Transactional(readOnly = true)
+  /**
+   * 테넌트 세션 제한은 거의 바뀌지 않으므로 노드 로컬에 캐시한다.
+   * 변경은 upsert 커밋 후 이벤트와 Redis 채널로 전파되고, TTL 은 메시지 유실에 대비한 상한이다.
+   */
+  @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
   public SessionLimitSettings resolveForTenant(String tenantId) {
     if (!StringUtils.hasText(tenantId)) {
       return defaultSettings();
     }
     String normalized = tenantId.trim();
-    Optional<TenantSessionLimit> found = repository.findById(normalized);
-    return found.map(this::toSettings).orElse(defaultSettings());
+    Instant now = clock.instant();
+    CachedSettings cached = cache.get(normalized);
+    if (cached != null && now.isBefore(cached.expiresAt())) {
+      return cached.settings();
+    }
+    long loadedGeneration = generation.get();
+    SessionLimitSettings settings = repository.findById(normalized)
+        .map(this::toSettings)
+        .orElseGet(this::defaultSettings);
+    if (generation.get() == loadedGeneration) {
+      cache.put(normalized, new CachedSettings(settings, now.plus(cacheTtl)));
+    }
+    return settings;
+  }
+
+  @Transactional(propagation = Propagation.SUPPORTS)
+  public void evict(String tenantId) {
+    generation.incrementAndGet();
+    if (StringUtils.hasText(tenantId)) {
+      cache.remove(tenantId.trim());
+    } else {
+      cache.clear();
+    }
   }
 
   @Transactional(readOnly = true)
@@ -43,29 +91,71 @@ public class TenantSessionLimitService {
 
   public TenantSessionLimit upsert(String tenantId, int maxSessions, int maxIdleSeconds,
       int maxDurationSeconds) {
+    TenantSessionLimit entity = findOrCreate(tenantId);
+    applyLimits(entity, maxSessions, maxIdleSeconds, maxDurationSeconds);
+    return save(entity);
+  }
+
+  public TenantSessionLimit upsert(String tenantId, SessionLimitSettings settings) {
+    if (settings.rotationStrategy() == SessionRotationStrategy.INTERVAL
+        && !settings.hasRotationInterval() && !settings.hasRotationRequestCount()) {
+      throw new IllegalArgumentException("INTERVAL 전략은 재발급 주기(초) 또는 요청 수가 필요합니다.");
+    }
+    TenantSessionLimit entity = findOrCreate(tenantId);
+    applyLimits(entity, settings.maxSessions(), toSeconds(settings.maxIdle()),
+        toSeconds(settings.maxDuration()));
+    entity.setMaxSessionsPerUser(settings.maxSessionsPerUser());
+    entity.setEvictionPolicy(settings.evictionPolicy());
+    entity.setRotationStrategy(settings.rotationStrategy());
+    entity.setRotationIntervalSeconds(toSeconds(settings.rotationInterval()));
+    entity.setRotationRequestCount(settings.rotationRequestCount());
+    return save(entity);
+  }
+
+  public SessionLimitSettings defaultSettings() {
+    return new SessionLimitSettings(DEFAULT_MAX_SESSIONS, DEFAULT_MAX_IDLE, DEFAULT_MAX_DURATION);
+  }
+
+  private TenantSessionLimit save(TenantSessionLimit entity) {
+    TenantSessionLimit saved = repository.save(entity);
+    eventPublisher.publishEvent(new TenantSessionLimitChangedEvent(saved.getTenantId()));
+    return saved;
+  }
+
+  private TenantSessionLimit findOrCreate(String tenantId) {
     if (!StringUtils.hasText(tenantId)) {
       throw new IllegalArgumentException("테넌트 ID는 필수입니다.");
     }
     String normalized = tenantId.trim();
-    TenantSessionLimit entity = repository.findById(normalized)
+    return repository.findById(normalized)
         .orElseGet(() -> new TenantSessionLimit(normalized, DEFAULT_MAX_SESSIONS,
             (int) DEFAULT_MAX_IDLE.getSeconds(),
             (int) DEFAULT_MAX_DURATION.getSeconds()));
+  }
+
+  private void applyLimits(TenantSessionLimit entity, int maxSessions, int maxIdleSeconds,
+      int maxDurationSeconds) {
     entity.setMaxSessions(Math.max(0, maxSessions));
     entity.setMaxIdleSeconds(Math.max(0, maxIdleSeconds));
     entity.setMaxDurationSeconds(Math.max(0, maxDurationSeconds));
-    return repository.save(entity);
-  }
-
-  public SessionLimitSettings defaultSettings() {
-    return new SessionLimitSettings(DEFAULT_MAX_SESSIONS, DEFAULT_MAX_IDLE, DEFAULT_MAX_DURATION);
   }
 
   private SessionLimitSettings toSettings(TenantSessionLimit entity) {
     Duration idle = secondsToDuration(entity.getMaxIdleSeconds(), DEFAULT_MAX_IDLE);
     Duration duration = secondsToDuration(entity.getMaxDurationSeconds(), DEFAULT_MAX_DURATION);
     int maxSessions = Math.max(0, entity.getMaxSessions());
-    return new SessionLimitSettings(maxSessions, idle, duration);
+    Duration rotationInterval = secondsToDuration(entity.getRotationIntervalSeconds(),
+        Duration.ZERO);
+    return new SessionLimitSettings(maxSessions, Math.max(0, entity.getMaxSessionsPerUser()),
+        entity.getEvictionPolicy(), idle, duration, entity.getRotationStrategy(),
+        rotationInterval, entity.getRotationRequestCount());
+  }
+
+  private int toSeconds(Duration duration) {
+    if (duration.isNegative()) {
+      return 0;
+    }
+    return (int) Math.min(Integer.MAX_VALUE, duration.getSeconds());
   }
 
   private Duration secondsToDuration(int value, Duration fallback) {
@@ -77,4 +167,7 @@ public class TenantSessionLimitService {
     }
     return Duration.ofSeconds(value);
   }
+
+  private record CachedSettings(SessionLimitSettings settings, Instant expiresAt) {
+  }
 }
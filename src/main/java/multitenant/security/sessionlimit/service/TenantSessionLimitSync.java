@@ -0,0 +1,54 @@
+package multitenant.security.sessionlimit.service;
+
+import java.nio.charset.StandardCharsets;
+import multitenant.security.sessionlimit.domain.TenantSessionLimitChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 테넌트 세션 제한 변경을 로컬 캐시에 반영하고 Redis 채널로 다른 노드에 전파한다.
+ */
+@Component
+public class TenantSessionLimitSync implements MessageListener {
+
+  private static final String ALL_TENANTS = "*";
+
+  private final TenantSessionLimitService tenantSessionLimitService;
+  private final StringRedisTemplate redisTemplate;
+  private final String channel;
+
+  public TenantSessionLimitSync(TenantSessionLimitService tenantSessionLimitService,
+      StringRedisTemplate redisTemplate,
+      @Value("${session.limit.sync-channel:octatco:sso:tenant-session-limit}") String channel) {
+    this.tenantSessionLimitService = tenantSessionLimitService;
+    this.redisTemplate = redisTemplate;
+    this.channel = channel;
+  }
+
+  public String getChannel() {
+    return channel;
+  }
+
+  @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+  public void onLimitChanged(TenantSessionLimitChangedEvent event) {
+    tenantSessionLimitService.evict(event.tenantId());
+    try {
+      redisTemplate.convertAndSend(channel,
+          event.tenantId() == null ? ALL_TENANTS : event.tenantId());
+    } catch (DataAccessException ex) {
+      // 전파에 실패해도 다른 노드는 캐시 TTL 이 지나면 새 값을 읽는다.
+    }
+  }
+
+  @Override
+  public void onMessage(Message message, byte[] pattern) {
+    String tenantId = new String(message.getBody(), StandardCharsets.UTF_8);
+    tenantSessionLimitService.evict(ALL_TENANTS.equals(tenantId) ? null : tenantId);
+  }
+}
@@ -0,0 +1,240 @@
+package multitenant.security.sessionlimit.service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import multitenant.security.session.TenantSessionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.session.events.SessionDestroyedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+/**
+ * 테넌트/사용자별 활성 세션을 마지막 접근 시각을 점수로 하는 Redis sorted set 으로 관리한다.
+ * 테넌트의 키는 모두 같은 해시 태그를 쓰며, 등록과 초과분 정리를 Lua 스크립트 한 번으로 처리한다.
+ * <ul>
+ *   <li>{prefix}{tenant}:sessions - 테넌트 전체 세션</li>
+ *   <li>{prefix}{tenant}:user:{userId} - 사용자별 세션</li>
+ *   <li>{prefix}{tenant}:owners - 세션 ID 별 사용자 ID</li>
+ * </ul>
+ * 스크립트는 정리 대상 세션의 소유자 키를 소유자 hash 에서 읽어 만들기 때문에 모든 키를 KEYS 로 넘길 수 없다.
+ * 이 키들도 같은 {@code {tenant}} 해시 태그를 쓰므로 Redis Cluster 에서 같은 슬롯에 놓인다.
+ * 세션 만료 이벤트가 없는 저장소 모드에서도 정리되도록, {@code session.limit.registry.stale-after} 보다
+ * 오래 접근되지 않은 항목은 만료된 세션으로 보고 등록 시 함께 제거한다.
+ */
+@Component
+public class TenantSessionRegistry {
+
+  @SuppressWarnings("unchecked")
+  private static final Class<List<Object>> LIST_RESULT =
+      (Class<List<Object>>) (Class<?>) List.class;
+
+  // KEYS: 테넌트 세션 sorted set, 소유자 hash, (사용자 ID 가 있으면) 현재 사용자 sorted set
+  // ARGV: 세션 ID, 현재 시각(ms), 테넌트 최대 세션 수, 사용자 최대 세션 수, 유휴 기준 시각(ms),
+  //       키 TTL(ms), 교체된 이전 세션 ID, 사용자 ID, 정리 정책, 사용자 키 prefix
+  // 0 또는 빈 문자열은 해당 항목을 적용하지 않는다는 의미다.
+  private static final RedisScript<List<Object>> REGISTER = new DefaultRedisScript<>("""
+      local tenantKey = KEYS[1]
+      local ownersKey = KEYS[2]
+      local sessionId = ARGV[1]
+      local now = ARGV[2]
+      local maxTenant = tonumber(ARGV[3])
+      local maxUser = tonumber(ARGV[4])
+      local idleBefore = tonumber(ARGV[5])
+      local ttl = tonumber(ARGV[6])
+      local replacedId = ARGV[7]
+      local userId = ARGV[8]
+      local rejectNew = ARGV[9] == 'REJECT_NEW'
+      local userPrefix = ARGV[10]
+
+      local function forget(id)
+        local owner = redis.call('HGET', ownersKey, id)
+        if owner then
+          redis.call('ZREM', userPrefix .. owner, id)
+          redis.call('HDEL', ownersKey, id)
+        end
+        redis.call('ZREM', tenantKey, id)
+      end
+
+      if replacedId ~= '' then
+        forget(replacedId)
+      end
+      if idleBefore > 0 then
+        for _, id in ipairs(redis.call('ZRANGEBYSCORE', tenantKey, '-inf', '(' .. idleBefore)) do
+          forget(id)
+        end
+      end
+
+      local userKey = KEYS[3]
+      local known = redis.call('ZSCORE', tenantKey, sessionId)
+      if not known and rejectNew then
+        if maxTenant > 0 and redis.call('ZCARD', tenantKey) >= maxTenant then
+          return {0}
+        end
+        if userKey and maxUser > 0 and redis.call('ZCARD', userKey) >= maxUser then
+          return {0}
+        end
+      end
+
+      local previousOwner = redis.call('HGET', ownersKey, sessionId)
+      if previousOwner and previousOwner ~= userId then
+        redis.call('ZREM', userPrefix .. previousOwner, sessionId)
+        redis.call('HDEL', ownersKey, sessionId)
+      end
+      redis.call('ZADD', tenantKey, now, sessionId)
+      if userKey then
+        redis.call('ZADD', userKey, now, sessionId)
+        redis.call('HSET', ownersKey, sessionId, userId)
+      end
+
+      local result = {1}
+      local function evictOverflow(key, limit)
+        local overflow = redis.call('ZCARD', key) - limit
+        if overflow <= 0 then
+          return
+        end
+        for _, id in ipairs(redis.call('ZRANGE', key, 0, overflow)) do
+          if overflow > 0 and id ~= sessionId then
+            forget(id)
+            result[#result + 1] = id
+            overflow = overflow - 1
+          end
+        end
+      end
+      if not rejectNew then
+        if userKey and maxUser > 0 then
+          evictOverflow(userKey, maxUser)
+        end
+        if maxTenant > 0 then
+          evictOverflow(tenantKey, maxTenant)
+        end
+      end
+
+      local keys = {tenantKey, ownersKey}
+      if userKey then
+        keys[#keys + 1] = userKey
+      end
+      for _, key in ipairs(keys) do
+        if ttl > 0 then
+          redis.call('PEXPIRE', key, ttl)
+        else
+          redis.call('PERSIST', key)
+        end
+      end
+      return result
+      """, LIST_RESULT);
+
+  // KEYS: 테넌트 세션 sorted set, 소유자 hash / ARGV: 세션 ID, 사용자 키 prefix
+  private static final RedisScript<Long> UNREGISTER = new DefaultRedisScript<>("""
+      local owner = redis.call('HGET', KEYS[2], ARGV[1])
+      if owner then
+        redis.call('ZREM', ARGV[2] .. owner, ARGV[1])
+        redis.call('HDEL', KEYS[2], ARGV[1])
+      end
+      return redis.call('ZREM', KEYS[1], ARGV[1])
+      """, Long.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final Clock clock;
+  private final String keyPrefix;
+  private final Duration staleAfter;
+
+  public TenantSessionRegistry(StringRedisTemplate redisTemplate, Clock clock,
+      @Value("${session.limit.registry.key-prefix:octatco:sso:tenant-sessions:}")
+      String keyPrefix,
+      @Value("${session.limit.registry.stale-after:PT0S}") Duration staleAfter) {
+    this.redisTemplate = redisTemplate;
+    this.clock = clock;
+    this.keyPrefix = keyPrefix;
+    this.staleAfter = staleAfter;
+  }
+
+  /**
+   * 세션을 현재 시각으로 등록하고 정책에 따라 최대 세션 수 초과분을 처리한다.
+   * OLDEST_FIRST 는 사용자 단위, 테넌트 단위 순으로 가장 오래된 세션을 레지스트리에서 제거해 반환하며
+   * 현재 세션은 제거 대상에서 제외된다. REJECT_NEW 는 아직 등록되지 않은 세션이 한도를 넘기면 거부한다.
+   */
+  public SessionRegistration register(String tenantId, String userId, String sessionId,
+      String replacedSessionId, SessionLimitSettings settings) {
+    long now = clock.millis();
+    long idle = settings.hasIdleLimit() ? settings.maxIdle().toMillis() : 0;
+    if (staleAfter.isPositive() && (idle == 0 || staleAfter.toMillis() < idle)) {
+      idle = staleAfter.toMillis();
+    }
+    long idleBefore = idle > 0 ? now - idle : 0;
+    long ttl = idle;
+    List<String> keys = StringUtils.hasText(userId)
+        ? List.of(tenantKey(tenantId), ownersKey(tenantId), userKey(tenantId, userId))
+        : List.of(tenantKey(tenantId), ownersKey(tenantId));
+    List<Object> result = redisTemplate.execute(REGISTER, keys,
+        sessionId, Long.toString(now), Integer.toString(settings.maxSessions()),
+        Integer.toString(settings.maxSessionsPerUser()), Long.toString(idleBefore),
+        Long.toString(ttl), replacedSessionId == null ? "" : replacedSessionId,
+        StringUtils.hasText(userId) ? userId : "", settings.evictionPolicy().name(),
+        userKeyPrefix(tenantId));
+    if (result == null || result.isEmpty()) {
+      return new SessionRegistration(true, List.of());
+    }
+    if (!Long.valueOf(1).equals(result.get(0))) {
+      return SessionRegistration.rejected();
+    }
+    List<String> evicted = new ArrayList<>(result.size() - 1);
+    for (Object id : result.subList(1, result.size())) {
+      evicted.add(id.toString());
+    }
+    return new SessionRegistration(true, evicted);
+  }
+
+  public void unregister(String tenantId, String sessionId) {
+    redisTemplate.execute(UNREGISTER, List.of(tenantKey(tenantId), ownersKey(tenantId)),
+        sessionId, userKeyPrefix(tenantId));
+  }
+
+  public long count(String tenantId) {
+    Long size = redisTemplate.opsForZSet().zCard(tenantKey(tenantId));
+    return size == null ? 0 : size;
+  }
+
+  public long countForUser(String tenantId, String userId) {
+    Long size = redisTemplate.opsForZSet().zCard(userKey(tenantId, userId));
+    return size == null ? 0 : size;
+  }
+
+  /**
+   * 사용자의 세션 ID 를 오래된 순으로 반환한다. 세션 해시는 읽지 않는다.
+   */
+  public Set<String> sessionIdsForUser(String tenantId, String userId) {
+    Set<String> ids = redisTemplate.opsForZSet().range(userKey(tenantId, userId), 0, -1);
+    return ids == null ? Set.of() : ids;
+  }
+
+  @EventListener
+  public void onSessionDestroyed(SessionDestroyedEvent event) {
+    TenantSessionContext context = TenantSessionContext.from(event.getSession());
+    if (context != null && StringUtils.hasText(context.tenantId())) {
+      unregister(context.tenantId().trim(), event.getSessionId());
+    }
+  }
+
+  String tenantKey(String tenantId) {
+    return keyPrefix + "{" + tenantId + "}:sessions";
+  }
+
+  String ownersKey(String tenantId) {
+    return keyPrefix + "{" + tenantId + "}:owners";
+  }
+
+  String userKey(String tenantId, String userId) {
+    return userKeyPrefix(tenantId) + userId;
+  }
+
+  private String userKeyPrefix(String tenantId) {
+    return keyPrefix + "{" + tenantId + "}:user:";
+  }
+}
@@ -5,6 +5,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
 import multitenant.security.security.TenantUserDetails;
+import multitenant.security.session.TenantSessionContext;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
@@ -31,9 +32,18 @@ public class AuthController {
     }
 
     Map<String, Object> sessionMap = new LinkedHashMap<>();
-    session.getAttributeNames().asIterator().forEachRemaining(name ->
-        sessionMap.put(name, session.getAttribute(name))
-    );
+    session.getAttributeNames().asIterator().forEachRemaining(name -> {
+      Object value = session.getAttribute(name);
+      if (value instanceof TenantSessionContext context) {
+        sessionMap.put("tenantId", context.tenantId());
+        sessionMap.put("userId", context.userId());
+        sessionMap.put("groupIds", context.groupIds());
+        sessionMap.put("countryCode", context.countryCode());
+        sessionMap.put("clientIp", context.clientIp());
+      } else {
+        sessionMap.put(name, value);
+      }
+    });
     model.addAttribute("sessionAttributes", sessionMap);
     return "home";
   }
@@ -18,7 +18,9 @@ values
   (7, 'TENANT', 'tenant2', 6, false),
   (8, 'USER', 'blacklist-user', 6, false);
 
-insert into tenant_session_limit (tenant_id, max_sessions, max_idle_seconds, max_duration_seconds)
+insert into tenant_session_limit (tenant_id, max_sessions, max_sessions_per_user, eviction_policy,
+                                  max_idle_seconds, max_duration_seconds, rotation_strategy,
+                                  rotation_interval_seconds, rotation_request_count)
 values
-  ('tenant1', 3, 1200, 7200),
-  ('tenant2', 2, 900, 3600);
+  ('tenant1', 3, 2, 'OLDEST_FIRST', 1200, 7200, 'ON_SECURITY_LEVEL_ESCALATION', 0, 0),
+  ('tenant2', 2, 1, 'REJECT_NEW', 900, 3600, 'ON_LOGIN', 0, 0);
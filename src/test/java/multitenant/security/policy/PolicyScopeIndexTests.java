@@ -0,0 +1,87 @@
+package multitenant.security.policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Set;
+import multitenant.security.policy.domain.PolicyScopeIndex;
+import multitenant.security.policy.domain.PolicyScopeType;
+import multitenant.security.policy.domain.SessionPolicyScope;
+import org.junit.jupiter.api.Test;
+
+class PolicyScopeIndexTests {
+
+  @Test
+  void keepsTenantGroupAndUserScopesSeparate() {
+    PolicyScopeIndex index = PolicyScopeIndex.of(List.of(
+        scope(PolicyScopeType.TENANT, "tenant1", false),
+        scope(PolicyScopeType.GROUP, "engineering", false),
+        scope(PolicyScopeType.USER, "alice", false)));
+
+    assertThat(index.includes(PolicyScopeType.TENANT)).containsExactly("tenant1");
+    assertThat(index.includes(PolicyScopeType.GROUP)).containsExactly("engineering");
+    assertThat(index.includes(PolicyScopeType.USER)).containsExactly("alice");
+    assertThat(index.includes(PolicyScopeType.USER, "engineering")).isFalse();
+    assertThat(index.includes(PolicyScopeType.GROUP, "alice")).isFalse();
+  }
+
+  @Test
+  void exclusionsAreIndexedApartFromInclusions() {
+    PolicyScopeIndex index = PolicyScopeIndex.of(List.of(
+        scope(PolicyScopeType.TENANT, "tenant1", false),
+        scope(PolicyScopeType.GROUP, "engineering", false),
+        scope(PolicyScopeType.USER, "alice", true),
+        scope(PolicyScopeType.GROUP, "contractors", true)));
+
+    assertThat(index.includes(PolicyScopeType.USER)).isEmpty();
+    assertThat(index.excludes(PolicyScopeType.USER, "alice")).isTrue();
+    assertThat(index.includes(PolicyScopeType.USER, "alice")).isFalse();
+    assertThat(index.includesAny(PolicyScopeType.GROUP, Set.of("engineering", "contractors")))
+        .isTrue();
+    assertThat(index.excludesAny(PolicyScopeType.GROUP, Set.of("engineering", "contractors")))
+        .isTrue();
+    assertThat(index.excludesAny(PolicyScopeType.GROUP, Set.of("engineering"))).isFalse();
+  }
+
+  @Test
+  void sameValueCanBeBothIncludedAndExcluded() {
+    // 포함과 제외가 함께 있으면 평가 시 제외가 우선하도록 두 조회 모두 참이어야 한다.
+    PolicyScopeIndex index = PolicyScopeIndex.of(List.of(
+        scope(PolicyScopeType.TENANT, "tenant1", false),
+        scope(PolicyScopeType.TENANT, "tenant1", true)));
+
+    assertThat(index.includes(PolicyScopeType.TENANT, "tenant1")).isTrue();
+    assertThat(index.excludes(PolicyScopeType.TENANT, "tenant1")).isTrue();
+  }
+
+  @Test
+  void ignoresIncompleteScopesAndNullLookups() {
+    PolicyScopeIndex index = PolicyScopeIndex.of(List.of(
+        scope(null, "tenant1", false),
+        scope(PolicyScopeType.USER, null, false)));
+
+    assertThat(index.includes(PolicyScopeType.TENANT)).isEmpty();
+    assertThat(index.includes(PolicyScopeType.USER)).isEmpty();
+    assertThat(index.includes(PolicyScopeType.USER, null)).isFalse();
+    assertThat(index.excludesAny(PolicyScopeType.GROUP, null)).isFalse();
+    assertThat(PolicyScopeIndex.of(null).includes(PolicyScopeType.TENANT)).isEmpty();
+  }
+
+  @Test
+  void lookupSetsAreReadOnly() {
+    PolicyScopeIndex index = PolicyScopeIndex.of(List.of(
+        scope(PolicyScopeType.GROUP, "engineering", false)));
+
+    assertThatThrownBy(() -> index.includes(PolicyScopeType.GROUP).add("security"))
+        .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  private static SessionPolicyScope scope(PolicyScopeType type, String value, boolean excluded) {
+    SessionPolicyScope scope = new SessionPolicyScope();
+    scope.setScopeType(type);
+    scope.setScopeValue(value);
+    scope.setExcluded(excluded);
+    return scope;
+  }
+}
@@ -135,6 +135,31 @@ class SessionPolicyServiceTests {
     assertThat(result.effect()).isEqualTo(PolicyEffect.ALLOW);
   }
 
+  @Test
+  void appliesUserScopedPolicyOnlyToNamedUserRegardlessOfGroup() {
+    SessionPolicy denyCarol = createPolicy("tenant1", PolicyEffect.DENY,
+        multitenant.security.policy.domain.PolicyConditionType.TIME_WINDOW,
+        "{\"start\":\"00:00\",\"end\":\"23:59\",\"zone\":\"Asia/Seoul\"}", 150,
+        scopes(tenant("tenant1"), user("carol")));
+    sessionPolicyRepository.save(denyCarol);
+    ZonedDateTime now = ZonedDateTime.of(2024, 1, 5, 10, 0, 0, 0, ZoneId.of("Asia/Seoul"));
+
+    PolicyEvaluationResult carolResult = sessionPolicyService.evaluate(
+        new PolicyEvaluationContext("tenant1", "carol", Set.of(), "203.0.113.7", "KR", now));
+    PolicyEvaluationResult aliceResult = sessionPolicyService.evaluate(
+        new PolicyEvaluationContext("tenant1", "alice", Set.of("engineering"), "10.0.0.20", "KR",
+            now));
+    PolicyEvaluationResult otherTenantResult = sessionPolicyService.evaluate(
+        new PolicyEvaluationContext("tenant2", "carol", Set.of(), "203.0.113.7", "US",
+            ZonedDateTime.of(2024, 1, 5, 10, 0, 0, 0, ZoneId.of("UTC"))));
+
+    assertThat(carolResult.allowed()).isFalse();
+    assertThat(carolResult.policyId()).isEqualTo(denyCarol.getId());
+    assertThat(aliceResult.allowed()).isTrue();
+    assertThat(aliceResult.policyId()).isNotEqualTo(denyCarol.getId());
+    assertThat(otherTenantResult.allowed()).isTrue();
+  }
+
   @Test
   void skipsPolicyWhenUserIsExplicitlyExcluded() {
     SessionPolicy denyEngineering = createPolicy("tenant1", PolicyEffect.DENY,
@@ -172,6 +197,59 @@ class SessionPolicyServiceTests {
     assertThat(bobResult.effect()).isEqualTo(PolicyEffect.DENY);
   }
 
+  @Test
+  void reflectsPolicyChangesAfterSnapshotIsCached() {
+    PolicyEvaluationContext context = new PolicyEvaluationContext(
+        "tenant1",
+        "alice",
+        Set.of("engineering"),
+        "10.0.0.10",
+        "CN",
+        ZonedDateTime.of(2024, 1, 6, 10, 0, 0, 0, ZoneId.of("Asia/Seoul"))
+    );
+    assertThat(sessionPolicyService.evaluate(context).allowed()).isFalse();
+
+    SessionPolicy denyCountry = sessionPolicyRepository.findAllWithScopes().stream()
+        .filter(policy -> policy.getEffect() == PolicyEffect.DENY && policy.getPriority() == 130)
+        .findFirst()
+        .orElseThrow();
+    denyCountry.setActive(false);
+    sessionPolicyRepository.save(denyCountry);
+
+    PolicyEvaluationResult result = sessionPolicyService.evaluate(context);
+    assertThat(result.allowed()).isTrue();
+    assertThat(result.policyId()).isNotEqualTo(denyCountry.getId());
+  }
+
+  @Test
+  void reevaluatesCachedDecisionAfterTimeWindowBoundary() {
+    PolicyEvaluationContext beforeClose = new PolicyEvaluationContext(
+        "tenant1",
+        "alice",
+        Set.of(),
+        null,
+        "KR",
+        ZonedDateTime.of(2024, 1, 7, 20, 0, 0, 0, ZoneId.of("Asia/Seoul"))
+    );
+    PolicyEvaluationContext afterClose = new PolicyEvaluationContext(
+        "tenant1",
+        "alice",
+        Set.of(),
+        null,
+        "KR",
+        ZonedDateTime.of(2024, 1, 7, 20, 0, 1, 0, ZoneId.of("Asia/Seoul"))
+    );
+
+    PolicyEvaluationResult first = sessionPolicyService.evaluate(beforeClose);
+    PolicyEvaluationResult repeated = sessionPolicyService.evaluate(beforeClose);
+    PolicyEvaluationResult later = sessionPolicyService.evaluate(afterClose);
+
+    assertThat(first.policyId()).isNotNull();
+    assertThat(repeated).isEqualTo(first);
+    assertThat(later.allowed()).isTrue();
+    assertThat(later.policyId()).isNull();
+  }
+
   private SessionPolicy createPolicy(String tenantId, PolicyEffect effect,
       multitenant.security.policy.domain.PolicyConditionType conditionType,
       String conditionValue, int priority, Set<SessionPolicyScope> scopes) {
@@ -0,0 +1,50 @@
+package multitenant.security.policy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import multitenant.security.policy.domain.SessionPolicyChangedEvent;
+import multitenant.security.policy.service.TenantPolicySnapshotCache;
+import multitenant.security.policy.service.TenantPolicySnapshotCache.TenantPolicySnapshot;
+import multitenant.security.policy.service.TenantPolicySnapshotSync;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TenantPolicySnapshotSyncTests {
+
+  @Autowired
+  private TenantPolicySnapshotCache snapshotCache;
+
+  @Autowired
+  private TenantPolicySnapshotSync snapshotSync;
+
+  @Test
+  void remoteChangeMessageDropsCachedSnapshots() {
+    TenantPolicySnapshot before = snapshotCache.snapshot("tenant1");
+    assertThat(snapshotCache.snapshot("tenant1")).isSameAs(before);
+
+    snapshotSync.onMessage(new DefaultMessage(
+        snapshotSync.getChannel().getBytes(StandardCharsets.UTF_8),
+        "42".getBytes(StandardCharsets.UTF_8)), null);
+
+    assertThat(snapshotCache.snapshot("tenant1")).isNotSameAs(before);
+  }
+
+  @Test
+  void localChangeIsDeliveredThroughRedisChannel() throws Exception {
+    TenantPolicySnapshot before = snapshotCache.snapshot("tenant1");
+
+    // 이 노드도 채널을 구독하므로, 직접 비우지 않고 보낸 메시지로 스냅샷이 비워지는지 확인한다.
+    snapshotSync.onPolicyChanged(new SessionPolicyChangedEvent(null));
+
+    for (int i = 0; i < 50 && snapshotCache.snapshot("tenant1") == before; i++) {
+      Thread.sleep(20);
+    }
+    assertThat(snapshotCache.snapshot("tenant1")).isNotSameAs(before);
+  }
+}
@@ -13,6 +13,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
 
+import java.time.Duration;
 import java.util.List;
 import multitenant.security.policy.domain.PolicyConditionType;
 import multitenant.security.policy.domain.PolicyEffect;
@@ -20,8 +21,14 @@ import multitenant.security.policy.service.PolicyEvaluationResult;
 import multitenant.security.securitylevel.SecurityLevel;
 import multitenant.security.securitylevel.SecurityLevelState;
 import multitenant.security.securitylevel.service.SecurityLevelService;
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
 import multitenant.security.sessionlimit.domain.TenantSessionLimit;
+import multitenant.security.sessionlimit.service.SessionEvictionQueue;
+import multitenant.security.sessionlimit.service.SessionLimitSettings;
+import multitenant.security.sessionlimit.service.SessionRotationCounter;
 import multitenant.security.sessionlimit.service.TenantSessionLimitService;
+import multitenant.security.sessionlimit.service.TenantSessionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -50,6 +57,15 @@ class PolicyAdminControllerTests {
   @MockitoBean
   private TenantSessionLimitService tenantSessionLimitService;
 
+  @MockitoBean
+  private TenantSessionRegistry tenantSessionRegistry;
+
+  @MockitoBean
+  private SessionEvictionQueue sessionEvictionQueue;
+
+  @MockitoBean
+  private SessionRotationCounter sessionRotationCounter;
+
   private List<PolicySummary> samplePolicies;
 
   @BeforeEach
@@ -116,17 +132,37 @@ class PolicyAdminControllerTests {
         org.mockito.ArgumentMatchers.isNull());
   }
 
+  @Test
+  void partitionSecurityEventsInvokesService() throws Exception {
+    mockMvc.perform(post("/admin/policies/security-level/partitions")
+            .with(SecurityMockMvcRequestPostProcessors.csrf()))
+        .andExpect(status().is3xxRedirection())
+        .andExpect(redirectedUrl("/admin/policies"))
+        .andExpect(flash().attributeExists("successMessage"));
+
+    verify(securityLevelService).partitionEventTable();
+  }
+
   @Test
   void saveSessionLimitInvokesService() throws Exception {
+    given(tenantSessionLimitService.upsert(eq("tenantZ"), any(SessionLimitSettings.class)))
+        .willReturn(new TenantSessionLimit("tenantZ", 2, 900, 3600));
+
     mockMvc.perform(post("/admin/policies/limits")
             .param("tenantId", "tenantZ")
             .param("maxSessions", "2")
+            .param("maxSessionsPerUser", "1")
+            .param("evictionPolicy", "REJECT_NEW")
             .param("maxIdleSeconds", "900")
             .param("maxDurationSeconds", "3600")
+            .param("rotationStrategy", "INTERVAL")
+            .param("rotationIntervalSeconds", "600")
             .with(SecurityMockMvcRequestPostProcessors.csrf()))
         .andExpect(status().is3xxRedirection())
         .andExpect(redirectedUrl("/admin/policies"));
 
-    verify(tenantSessionLimitService).upsert("tenantZ", 2, 900, 3600);
+    verify(tenantSessionLimitService).upsert("tenantZ", new SessionLimitSettings(2, 1,
+        SessionEvictionPolicy.REJECT_NEW, Duration.ofSeconds(900), Duration.ofSeconds(3600),
+        SessionRotationStrategy.INTERVAL, Duration.ofSeconds(600), 0));
   }
 }
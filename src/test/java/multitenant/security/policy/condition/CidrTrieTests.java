@@ -0,0 +1,86 @@
+package multitenant.security.policy.condition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CidrTrieTests {
+
+  @Test
+  void matchesIpv4AndIpv6Ranges() throws Exception {
+    CidrTrie trie = new CidrTrie();
+    trie.add(bytes("10.0.0.0"), 8);
+    trie.add(bytes("192.168.1.0"), 24);
+    trie.add(bytes("2001:db8::"), 32);
+
+    assertThat(trie.contains(bytes("10.20.30.40"))).isTrue();
+    assertThat(trie.contains(bytes("192.168.1.77"))).isTrue();
+    assertThat(trie.contains(bytes("192.168.2.1"))).isFalse();
+    assertThat(trie.contains(bytes("2001:db8:abcd::1"))).isTrue();
+    assertThat(trie.contains(bytes("2001:db9::1"))).isFalse();
+  }
+
+  @Test
+  void zeroLengthPrefixMatchesWholeFamily() throws Exception {
+    CidrTrie trie = new CidrTrie();
+    trie.add(bytes("0.0.0.0"), 0);
+
+    assertThat(trie.contains(bytes("203.0.113.9"))).isTrue();
+    assertThat(trie.contains(bytes("::1"))).isFalse();
+  }
+
+  @Test
+  void agreesWithLinearScanForRandomRanges() {
+    Random random = new Random(42);
+    List<byte[]> networks = new ArrayList<>();
+    List<Integer> prefixes = new ArrayList<>();
+    CidrTrie trie = new CidrTrie();
+    for (int i = 0; i < 2000; i++) {
+      byte[] network = new byte[4];
+      random.nextBytes(network);
+      int prefix = 8 + random.nextInt(25);
+      networks.add(network);
+      prefixes.add(prefix);
+      trie.add(network, prefix);
+    }
+
+    for (int i = 0; i < 20000; i++) {
+      byte[] address = new byte[4];
+      random.nextBytes(address);
+      if (i % 2 == 0) {
+        byte[] base = networks.get(random.nextInt(networks.size()));
+        address[0] = base[0];
+        address[1] = base[1];
+      }
+      assertThat(trie.contains(address)).isEqualTo(linearContains(networks, prefixes, address));
+    }
+  }
+
+  private boolean linearContains(List<byte[]> networks, List<Integer> prefixes, byte[] address) {
+    for (int i = 0; i < networks.size(); i++) {
+      if (samePrefix(networks.get(i), address, prefixes.get(i))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private boolean samePrefix(byte[] network, byte[] address, int prefix) {
+    for (int bit = 0; bit < prefix; bit++) {
+      int left = (network[bit / 8] >> (7 - bit % 8)) & 1;
+      int right = (address[bit / 8] >> (7 - bit % 8)) & 1;
+      if (left != right) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private byte[] bytes(String literal) throws Exception {
+    return InetAddress.getByName(literal).getAddress();
+  }
+}
@@ -0,0 +1,40 @@
+package multitenant.security.policy.condition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetAddress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class IpAddressLiteralsTests {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "0.0.0.0", "10.0.0.1", "255.255.255.255", "192.168.001.010",
+      "::", "::1", "1::", "2001:db8::8a2e:370:7334", "2001:0db8:0000:0000:0000:0000:0000:0001",
+      "1:2:3:4:5:6:7::", "::2:3:4:5:6:7:8", "fe80::1:2", "::ffff:192.0.2.128", "64:ff9b::192.0.2.33"
+  })
+  void parsesLiteralsLikeInetAddress(String literal) throws Exception {
+    assertThat(IpAddressLiterals.parse(literal))
+        .isEqualTo(InetAddress.getByName(literal).getAddress());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "", "example.com", "localhost", "1.2.3", "1.2.3.4.5", "1.2.3.256", "1..2.3", "1.2.3.4 ",
+      "1234.1.1.1", ":::", "1::2::3", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7:8::", "12345::",
+      ":1:2", "1:2:", "::ffff:1.2.3", "1:2:3:4:5:6:7:1.2.3.4", "١.٢.٣.٤"
+  })
+  void rejectsNonLiterals(String value) {
+    assertThat(IpAddressLiterals.parse(value)).isNull();
+  }
+
+  @Test
+  void stripsBracketsAndZoneId() throws Exception {
+    assertThat(IpAddressLiterals.parse("[2001:db8::1]"))
+        .isEqualTo(InetAddress.getByName("2001:db8::1").getAddress());
+    assertThat(IpAddressLiterals.parse("fe80::1%eth0"))
+        .isEqualTo(InetAddress.getByName("fe80::1").getAddress());
+  }
+}
@@ -0,0 +1,50 @@
+package multitenant.security.policy.condition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.ZonedDateTime;
+import java.util.Set;
+import multitenant.security.policy.service.PolicyEvaluationContext;
+import org.junit.jupiter.api.Test;
+
+class IpRangeConditionEvaluatorTests {
+
+  private final IpRangeConditionEvaluator evaluator =
+      new IpRangeConditionEvaluator(new ObjectMapper());
+
+  @Test
+  void mapsIpv4MappedIpv6PrefixToIpv4Prefix() {
+    PolicyConditionMatcher matcher = evaluator.compile("{\"cidr\":[\"::ffff:10.0.0.0/104\"]}");
+
+    assertThat(matcher.matches(context("10.1.2.3"))).isTrue();
+    assertThat(matcher.matches(context("::ffff:10.200.0.1"))).isTrue();
+    assertThat(matcher.matches(context("11.0.0.1"))).isFalse();
+  }
+
+  @Test
+  void skipsMappedPrefixShorterThanMappedRangeButKeepsOtherEntries() {
+    PolicyConditionMatcher matcher =
+        evaluator.compile("{\"cidr\":[\"::ffff:10.0.0.0/80\", \"192.168.0.0/16\"]}");
+
+    assertThat(matcher.matches(context("10.1.2.3"))).isFalse();
+    assertThat(matcher.matches(context("192.168.4.4"))).isTrue();
+  }
+
+  @Test
+  void ignoresEntriesWithoutPrefixLength() {
+    PolicyConditionMatcher matcher =
+        evaluator.compile("{\"cidr\":[\"10.0.0.1\", \"2001:db8::1\", \"192.168.0.0/16\"]}");
+
+    assertThat(matcher.matches(context("10.0.0.1"))).isFalse();
+    assertThat(matcher.matches(context("2001:db8::1"))).isFalse();
+    assertThat(matcher.matches(context("192.168.4.4"))).isTrue();
+    assertThat(evaluator.compile("{\"cidr\":[\"10.0.0.1\"]}"))
+        .isSameAs(PolicyConditionMatcher.NEVER);
+  }
+
+  private static PolicyEvaluationContext context(String clientIp) {
+    return new PolicyEvaluationContext("tenant1", "alice", Set.of(), clientIp, "KR",
+        ZonedDateTime.now());
+  }
+}
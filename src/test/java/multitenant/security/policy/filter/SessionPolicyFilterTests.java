@@ -4,6 +4,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -17,31 +18,41 @@ import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.ZoneOffset;
-import java.util.Map;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
 import multitenant.security.policy.service.PolicyEvaluationContext;
 import multitenant.security.policy.service.PolicyEvaluationResult;
 import multitenant.security.policy.service.SessionPolicyService;
 import multitenant.security.securitylevel.SecurityLevel;
 import multitenant.security.securitylevel.service.SecurityLevelService;
+import multitenant.security.session.TenantSessionContext;
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
+import multitenant.security.sessionlimit.service.SessionEvictionQueue;
 import multitenant.security.sessionlimit.service.SessionLimitSettings;
+import multitenant.security.sessionlimit.service.SessionRegistration;
+import multitenant.security.sessionlimit.service.SessionRotationCounter;
 import multitenant.security.sessionlimit.service.TenantSessionLimitService;
+import multitenant.security.sessionlimit.service.TenantSessionRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.mock.web.MockFilterChain;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.session.FindByIndexNameSessionRepository;
-import org.springframework.session.MapSession;
-import org.springframework.session.Session;
 
 class SessionPolicyFilterTests {
 
   private SessionPolicyService sessionPolicyService;
   private SecurityLevelService securityLevelService;
   private TenantSessionLimitService tenantSessionLimitService;
-  private FindByIndexNameSessionRepository<? extends Session> sessionRepository;
+  private TenantSessionRegistry tenantSessionRegistry;
+  private SessionEvictionQueue sessionEvictionQueue;
+  private SessionRotationCounter sessionRotationCounter;
   private Clock clock;
   private SessionPolicyFilter filter;
 
@@ -50,23 +61,26 @@ class SessionPolicyFilterTests {
     sessionPolicyService = Mockito.mock(SessionPolicyService.class);
     securityLevelService = Mockito.mock(SecurityLevelService.class);
     tenantSessionLimitService = Mockito.mock(TenantSessionLimitService.class);
-    sessionRepository = Mockito.mock(FindByIndexNameSessionRepository.class);
+    tenantSessionRegistry = Mockito.mock(TenantSessionRegistry.class);
+    sessionEvictionQueue = Mockito.mock(SessionEvictionQueue.class);
+    sessionRotationCounter = Mockito.mock(SessionRotationCounter.class);
     clock = Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC);
     filter = new SessionPolicyFilter(sessionPolicyService, securityLevelService,
-        tenantSessionLimitService, sessionRepository, clock);
+        tenantSessionLimitService, tenantSessionRegistry, sessionEvictionQueue,
+        sessionRotationCounter, clock);
 
     given(sessionPolicyService.evaluate(any(PolicyEvaluationContext.class)))
         .willReturn(PolicyEvaluationResult.allow(null));
     given(securityLevelService.resolveSecurityLevel(anyString(), anyString()))
         .willReturn(SecurityLevel.LOW);
+    given(tenantSessionRegistry.register(any(), any(), any(), any(), any()))
+        .willReturn(new SessionRegistration(true, List.of()));
   }
 
   @Test
   void appliesIdleTimeoutFromTenantSettings() throws Exception {
     SessionLimitSettings settings = new SessionLimitSettings(0, Duration.ofMinutes(5), Duration.ZERO);
     given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
-    given(sessionRepository.findByIndexNameAndIndexValue(anyString(), anyString()))
-        .willReturn(Map.of());
 
     MockHttpSession session = new MockHttpSession();
     String originalId = session.getId();
@@ -81,8 +95,47 @@ class SessionPolicyFilterTests {
     filter.doFilter(request, response, chain);
 
     assertThat(session.getMaxInactiveInterval()).isEqualTo(300);
-    assertThat(session.getId()).isNotEqualTo(originalId);
-    verify(sessionRepository, never()).findByIndexNameAndIndexValue(anyString(), anyString());
+    assertThat(session.getId()).isEqualTo(originalId);
+    verify(tenantSessionRegistry, never()).register(any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void readsPolicyContextFromTenantContextAttribute() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(0, Duration.ofMinutes(5), Duration.ZERO);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute(TenantSessionContext.ATTRIBUTE,
+        new TenantSessionContext("tenant1", "alice", Set.of("engineering"), "kr", "10.0.0.1"));
+
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(session.getMaxInactiveInterval()).isEqualTo(300);
+    verify(securityLevelService).resolveSecurityLevel("tenant1", "alice");
+  }
+
+  @Test
+  void fallsBackToRemoteAddressWhenForwardedForIsNotAnIpLiteral() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(0, Duration.ofMinutes(5), Duration.ZERO);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute(TenantSessionContext.ATTRIBUTE,
+        new TenantSessionContext("tenant1", "alice", Set.of(), "kr", null));
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+    request.setRemoteAddr("192.0.2.7");
+    request.addHeader("X-Forwarded-For", "proxy.internal, 10.0.0.1");
+
+    filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+    ArgumentCaptor<PolicyEvaluationContext> context =
+        ArgumentCaptor.forClass(PolicyEvaluationContext.class);
+    verify(sessionPolicyService).evaluate(context.capture());
+    assertThat(context.getValue().clientIp()).isEqualTo("192.0.2.7");
   }
 
   @Test
@@ -90,8 +143,6 @@ class SessionPolicyFilterTests {
     SessionLimitSettings settings = new SessionLimitSettings(0, Duration.ofMinutes(30),
         Duration.ofMinutes(10));
     given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
-    given(sessionRepository.findByIndexNameAndIndexValue(anyString(), anyString()))
-        .willReturn(Map.of());
 
     MockHttpSession session = new MutableCreationTimeSession(
         Instant.parse("2024-12-31T23:30:00Z").toEpochMilli());
@@ -110,8 +161,6 @@ class SessionPolicyFilterTests {
   void zeroIdleTimeoutDisablesExpiration() throws Exception {
     SessionLimitSettings settings = new SessionLimitSettings(0, Duration.ZERO, Duration.ZERO);
     given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
-    given(sessionRepository.findByIndexNameAndIndexValue(anyString(), anyString()))
-        .willReturn(Map.of());
 
     MockHttpSession session = new MockHttpSession();
     String originalId = session.getId();
@@ -125,7 +174,7 @@ class SessionPolicyFilterTests {
     filter.doFilter(request, response, new MockFilterChain());
 
     assertThat(session.getMaxInactiveInterval()).isEqualTo(-1);
-    assertThat(session.getId()).isNotEqualTo(originalId);
+    assertThat(session.getId()).isEqualTo(originalId);
   }
 
   @Test
@@ -134,22 +183,12 @@ class SessionPolicyFilterTests {
         Duration.ZERO);
     given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
 
-    MapSession olderSession = new MapSession("old-1");
-    olderSession.setLastAccessedTime(clock.instant().minusSeconds(600));
-    MapSession newerSession = new MapSession("old-2");
-    newerSession.setLastAccessedTime(clock.instant().minusSeconds(60));
-
-    given(sessionRepository.findByIndexNameAndIndexValue(
-        TenantSessionLimitService.SESSION_INDEX_KEY_ATTRIBUTE, "tenant1"))
-        .willReturn(Map.of(
-            olderSession.getId(), olderSession,
-            newerSession.getId(), newerSession
-        ));
-
     MockHttpSession session = new MockHttpSession();
     String originalId = session.getId();
     session.setAttribute("tenantId", "tenant1");
     session.setAttribute("userId", "alice");
+    given(tenantSessionRegistry.register("tenant1", "alice", originalId, null, settings))
+        .willReturn(new SessionRegistration(true, List.of("old-1", "old-2")));
 
     MockHttpServletRequest request = new MockHttpServletRequest();
     request.setSession(session);
@@ -157,12 +196,161 @@ class SessionPolicyFilterTests {
 
     filter.doFilter(request, response, new MockFilterChain());
 
-    assertThat(session.getAttribute(TenantSessionLimitService.SESSION_INDEX_KEY_ATTRIBUTE))
-        .isEqualTo("tenant1");
-    verify(sessionRepository).deleteById("old-1");
-    verify(sessionRepository).deleteById("old-2");
-    verify(sessionRepository, never()).deleteById(session.getId());
+    assertThat(session.getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME))
+        .isNull();
+    verify(sessionEvictionQueue).enqueue(List.of("old-1", "old-2"));
+    assertThat(session.getId()).isEqualTo(originalId);
+  }
+
+  @Test
+  void rejectsNewSessionWhenRegistryRefusesIt() {
+    SessionLimitSettings settings = new SessionLimitSettings(5, 1,
+        SessionEvictionPolicy.REJECT_NEW, Duration.ofMinutes(30), Duration.ZERO,
+        SessionRotationStrategy.ON_LOGIN, Duration.ZERO, 0);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+    given(tenantSessionRegistry.register(any(), any(), any(), any(), any()))
+        .willReturn(SessionRegistration.rejected());
+
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+
+    assertThatThrownBy(() -> filter.doFilter(requestFor(session), new MockHttpServletResponse(),
+        new MockFilterChain()))
+        .isInstanceOf(org.springframework.security.access.AccessDeniedException.class);
+    assertThat(session.isInvalid()).isTrue();
+    verify(sessionEvictionQueue, never()).enqueue(any());
+  }
+
+  @Test
+  void removesLegacyTenantPrincipalIndex() throws Exception {
+    given(tenantSessionLimitService.resolveForTenant("tenant1"))
+        .willReturn(new SessionLimitSettings(0, Duration.ofMinutes(30), Duration.ZERO));
+
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+    session.setAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME, "tenant1");
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(session.getAttribute(FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME))
+        .isNull();
+  }
+
+  @Test
+  void replacesRotatedSessionIdInRegistry() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(2, 0, SessionEvictionPolicy.OLDEST_FIRST,
+        Duration.ofMinutes(30), Duration.ZERO, SessionRotationStrategy.INTERVAL, Duration.ZERO, 1);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MockHttpSession();
+    String originalId = session.getId();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+    given(sessionRotationCounter.increment(eq(originalId), any(Duration.class))).willReturn(1L);
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(session.getId()).isNotEqualTo(originalId);
+    verify(tenantSessionRegistry).register("tenant1", "alice", session.getId(), originalId,
+        settings);
+  }
+
+  @Test
+  void rotatesSessionIdWhenSecurityLevelEscalates() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(0, 0, SessionEvictionPolicy.OLDEST_FIRST,
+        Duration.ofMinutes(30), Duration.ZERO, SessionRotationStrategy.ON_SECURITY_LEVEL_ESCALATION, Duration.ZERO, 0);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+    String firstId = session.getId();
+
+    given(securityLevelService.resolveSecurityLevel("tenant1", "alice"))
+        .willReturn(SecurityLevel.MEDIUM);
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+    String escalatedId = session.getId();
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(escalatedId).isNotEqualTo(firstId);
+    assertThat(session.getId()).isEqualTo(escalatedId);
+  }
+
+  @Test
+  void rotatesSessionIdAfterConfiguredRequestCount() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(0, 0, SessionEvictionPolicy.OLDEST_FIRST,
+        Duration.ofMinutes(30), Duration.ZERO, SessionRotationStrategy.INTERVAL, Duration.ZERO, 3);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MockHttpSession();
+    String originalId = session.getId();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+    given(sessionRotationCounter.increment(eq(originalId), any(Duration.class)))
+        .willReturn(1L, 2L, 3L);
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+    assertThat(session.getId()).isEqualTo(originalId);
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
     assertThat(session.getId()).isNotEqualTo(originalId);
+    verify(sessionRotationCounter).reset(originalId);
+    // 요청 수는 세션 밖의 카운터로 세므로 세션에 교체 관련 속성을 쓰지 않는다.
+    assertThat(Collections.list(session.getAttributeNames()))
+        .noneMatch(name -> name.startsWith("sessionRotation:"));
+  }
+
+  @Test
+  void rotatesSessionIdOnceIntervalElapsed() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(0, 0, SessionEvictionPolicy.OLDEST_FIRST,
+        Duration.ofMinutes(30), Duration.ZERO, SessionRotationStrategy.INTERVAL, Duration.ofMinutes(15), 0);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MutableCreationTimeSession(
+        Instant.parse("2024-12-31T23:40:00Z").toEpochMilli());
+    String originalId = session.getId();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+    String rotatedId = session.getId();
+    filter.doFilter(requestFor(session), new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(rotatedId).isNotEqualTo(originalId);
+    assertThat(session.getId()).isEqualTo(rotatedId);
+    assertThat(session.getAttribute(SessionPolicyFilter.SESSION_ROTATED_AT_ATTR))
+        .isEqualTo(clock.millis());
+  }
+
+  @Test
+  void elidesSessionWritesWhenValuesAreUnchanged() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(0, Duration.ofMinutes(5), Duration.ZERO);
+    given(tenantSessionLimitService.resolveForTenant("tenant1")).willReturn(settings);
+
+    MockHttpSession session = new MockHttpSession();
+    session.setAttribute("tenantId", "tenant1");
+    session.setAttribute("userId", "alice");
+
+    MockHttpServletRequest first = requestFor(session);
+    filter.doFilter(first, new MockHttpServletResponse(), new MockFilterChain());
+    MockHttpServletRequest second = requestFor(session);
+    filter.doFilter(second, new MockHttpServletResponse(), new MockFilterChain());
+
+    assertThat(first.getAttribute(SessionPolicyFilter.REQUEST_ELIDED_WRITES_ATTR)).isEqualTo(2);
+    assertThat(second.getAttribute(SessionPolicyFilter.REQUEST_ELIDED_WRITES_ATTR)).isEqualTo(4);
+    assertThat(filter.getElidedSessionWriteCount()).isEqualTo(6);
+  }
+
+  private MockHttpServletRequest requestFor(MockHttpSession session) {
+    MockHttpServletRequest request = new MockHttpServletRequest();
+    request.setSession(session);
+    return request;
   }
 
   private static class MutableCreationTimeSession extends MockHttpSession {
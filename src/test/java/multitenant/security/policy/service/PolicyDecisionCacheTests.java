@@ -0,0 +1,45 @@
+package multitenant.security.policy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import multitenant.security.policy.condition.PolicyConditionMatcher;
+import multitenant.security.policy.service.TenantPolicySnapshotCache.TenantPolicySnapshot;
+import org.junit.jupiter.api.Test;
+
+class PolicyDecisionCacheTests {
+
+  private final TenantPolicyPlan plan = TenantPolicyPlan.compile(
+      new TenantPolicySnapshot("tenant1", List.of(), null), policy -> PolicyConditionMatcher.NEVER);
+  private final AtomicInteger evaluations = new AtomicInteger();
+
+  @Test
+  void evictsLeastRecentlyUsedEntryWhenFull() {
+    PolicyDecisionCache cache = new PolicyDecisionCache(2);
+
+    evaluate(cache, "alice");
+    evaluate(cache, "bob");
+    evaluate(cache, "alice");
+    evaluate(cache, "carol");
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(evaluations).hasValue(3);
+
+    evaluate(cache, "alice");
+    assertThat(evaluations).hasValue(3);
+    evaluate(cache, "bob");
+    assertThat(evaluations).hasValue(4);
+  }
+
+  private void evaluate(PolicyDecisionCache cache, String userId) {
+    PolicyEvaluationContext context = new PolicyEvaluationContext("tenant1", userId, Set.of(),
+        null, null, ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC));
+    cache.evaluate(plan, context, () -> {
+      evaluations.incrementAndGet();
+      return PolicyEvaluationResult.allow(null);
+    });
+  }
+}
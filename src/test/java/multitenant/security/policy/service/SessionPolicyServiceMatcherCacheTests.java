@@ -0,0 +1,123 @@
+package multitenant.security.policy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import multitenant.security.policy.condition.PolicyConditionEvaluator;
+import multitenant.security.policy.condition.PolicyConditionMatcher;
+import multitenant.security.policy.domain.PolicyConditionType;
+import multitenant.security.policy.domain.PolicyEffect;
+import multitenant.security.policy.domain.PolicyScopeType;
+import multitenant.security.policy.domain.SessionPolicy;
+import multitenant.security.policy.domain.SessionPolicyChangedEvent;
+import multitenant.security.policy.domain.SessionPolicyScope;
+import multitenant.security.policy.service.TenantPolicySnapshotCache.TenantPolicySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class SessionPolicyServiceMatcherCacheTests {
+
+  private final List<String> compiledValues = new ArrayList<>();
+  private TenantPolicySnapshotCache snapshotCache;
+  private SessionPolicyService service;
+
+  @BeforeEach
+  void setUp() {
+    snapshotCache = Mockito.mock(TenantPolicySnapshotCache.class);
+    service = new SessionPolicyService(snapshotCache, List.of(new RecordingEvaluator()), 0);
+  }
+
+  @Test
+  void reusesMatcherWhileConditionValueIsUnchanged() {
+    SessionPolicy policy = denyFrom(1L, "10.0.0.1");
+    givenSnapshot(policy);
+    service.evaluate(context("10.0.0.1"));
+    givenSnapshot(policy);
+
+    PolicyEvaluationResult result = service.evaluate(context("10.0.0.1"));
+
+    assertThat(result.allowed()).isFalse();
+    assertThat(compiledValues).containsExactly("10.0.0.1");
+  }
+
+  @Test
+  void recompilesWhenConditionValueChangesForSamePolicyId() {
+    SessionPolicy policy = denyFrom(1L, "10.0.0.1");
+    givenSnapshot(policy);
+    service.evaluate(context("10.0.0.1"));
+
+    SessionPolicy updated = denyFrom(1L, "10.0.0.2");
+    givenSnapshot(updated);
+
+    assertThat(service.evaluate(context("10.0.0.1")).allowed()).isTrue();
+    assertThat(service.evaluate(context("10.0.0.2")).allowed()).isFalse();
+    assertThat(compiledValues).containsExactly("10.0.0.1", "10.0.0.2");
+  }
+
+  @Test
+  void keepsSeparateMatchersPerPolicyId() {
+    givenSnapshot(denyFrom(1L, "10.0.0.1"), denyFrom(2L, "10.0.0.1"));
+
+    service.evaluate(context("10.0.0.9"));
+
+    assertThat(compiledValues).containsExactly("10.0.0.1", "10.0.0.1");
+  }
+
+  @Test
+  void recompilesAfterPolicyChangedEvent() {
+    SessionPolicy policy = denyFrom(1L, "10.0.0.1");
+    givenSnapshot(policy);
+    service.evaluate(context("10.0.0.1"));
+
+    service.onPolicyChanged(new SessionPolicyChangedEvent(1L));
+    givenSnapshot(policy);
+    service.evaluate(context("10.0.0.1"));
+
+    assertThat(compiledValues).containsExactly("10.0.0.1", "10.0.0.1");
+  }
+
+  private void givenSnapshot(SessionPolicy... policies) {
+    given(snapshotCache.snapshot("tenant1"))
+        .willReturn(new TenantPolicySnapshot("tenant1", List.of(policies), null));
+  }
+
+  private static SessionPolicy denyFrom(Long id, String clientIp) {
+    SessionPolicy policy = new SessionPolicy();
+    ReflectionTestUtils.setField(policy, "id", id);
+    policy.setName("deny " + clientIp);
+    policy.setEffect(PolicyEffect.DENY);
+    policy.setConditionType(PolicyConditionType.IP_RANGE);
+    policy.setConditionValue(clientIp);
+    SessionPolicyScope tenant = new SessionPolicyScope();
+    tenant.setScopeType(PolicyScopeType.TENANT);
+    tenant.setScopeValue("tenant1");
+    policy.addScope(tenant);
+    return policy;
+  }
+
+  private static PolicyEvaluationContext context(String clientIp) {
+    return new PolicyEvaluationContext("tenant1", "alice", Set.of(), clientIp, null,
+        ZonedDateTime.of(2025, 1, 1, 9, 0, 0, 0, ZoneOffset.UTC));
+  }
+
+  private class RecordingEvaluator implements PolicyConditionEvaluator {
+
+    @Override
+    public boolean supports(PolicyConditionType conditionType) {
+      return conditionType == PolicyConditionType.IP_RANGE;
+    }
+
+    @Override
+    public PolicyConditionMatcher compile(String conditionValue) {
+      compiledValues.add(conditionValue);
+      return context -> conditionValue.equals(context.clientIp());
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package multitenant.security.policy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import multitenant.security.policy.condition.PolicyConditionMatcher;
+import multitenant.security.policy.domain.PolicyConditionType;
+import multitenant.security.policy.domain.PolicyEffect;
+import multitenant.security.policy.domain.PolicyScopeIndex;
+import multitenant.security.policy.domain.PolicyScopeType;
+import multitenant.security.policy.domain.SessionPolicy;
+import multitenant.security.policy.domain.SessionPolicyScope;
+import multitenant.security.policy.service.TenantPolicySnapshotCache.TenantPolicySnapshot;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class TenantPolicyPlanTests {
+
+  private static final List<String> USERS = List.of("u1", "u2", "u3");
+  private static final List<String> GROUPS = List.of("g1", "g2", "g3");
+  private static final PolicyConditionType[] CONDITION_TYPES = {
+      PolicyConditionType.IP_RANGE, PolicyConditionType.LOCATION, PolicyConditionType.TIME_WINDOW,
+      null};
+
+  @Test
+  void prunedCandidatesAgreeWithFullScan() {
+    Random random = new Random(7);
+    for (int round = 0; round < 200; round++) {
+      List<SessionPolicy> policies = randomPolicies(random, 1 + random.nextInt(12));
+      TenantPolicyPlan plan = TenantPolicyPlan.compile(
+          new TenantPolicySnapshot("tenant1", policies, null), TenantPolicyPlanTests::matcher);
+
+      for (int i = 0; i < 50; i++) {
+        PolicyEvaluationContext context = randomContext(random);
+
+        assertThat(plan.evaluate(context)).as("round %d, %s", round, context)
+            .isEqualTo(fullScan(policies, context));
+      }
+    }
+  }
+
+  @Test
+  void policyWithoutConditionNeverMatches() {
+    SessionPolicy unconditioned = policy(1, PolicyEffect.DENY, null);
+    SessionPolicy fallback = policy(2, PolicyEffect.ALLOW, PolicyConditionType.TIME_WINDOW);
+    List<SessionPolicy> policies = List.of(unconditioned, fallback);
+    TenantPolicyPlan plan = TenantPolicyPlan.compile(
+        new TenantPolicySnapshot("tenant1", policies, null), TenantPolicyPlanTests::matcher);
+
+    PolicyEvaluationContext context = context("u1", Set.of(), null, null, 9);
+
+    assertThat(plan.evaluate(context)).isEqualTo(PolicyEvaluationResult.allow(fallback));
+    assertThat(plan.evaluate(context)).isEqualTo(fullScan(policies, context));
+  }
+
+  @Test
+  void excludedUserAndGroupSkipPolicyReachedThroughIndex() {
+    SessionPolicy denyGroup = policy(1, PolicyEffect.DENY, PolicyConditionType.TIME_WINDOW);
+    denyGroup.addScope(scope(PolicyScopeType.GROUP, "g1", false));
+    denyGroup.addScope(scope(PolicyScopeType.USER, "u2", true));
+    SessionPolicy denyUser = policy(2, PolicyEffect.DENY, PolicyConditionType.TIME_WINDOW);
+    denyUser.addScope(scope(PolicyScopeType.USER, "u3", false));
+    denyUser.addScope(scope(PolicyScopeType.GROUP, "g2", true));
+    List<SessionPolicy> policies = List.of(denyGroup, denyUser);
+    TenantPolicyPlan plan = TenantPolicyPlan.compile(
+        new TenantPolicySnapshot("tenant1", policies, null), TenantPolicyPlanTests::matcher);
+
+    List<PolicyEvaluationContext> contexts = List.of(
+        context("u1", Set.of("g1"), null, null, 9),
+        context("u2", Set.of("g1"), null, null, 9),
+        context("u3", Set.of(), null, null, 9),
+        context("u3", Set.of("g2"), null, null, 9));
+
+    assertThat(contexts).extracting(plan::evaluate).containsExactly(
+        PolicyEvaluationResult.deny(denyGroup),
+        PolicyEvaluationResult.allow(null),
+        PolicyEvaluationResult.deny(denyUser),
+        PolicyEvaluationResult.allow(null));
+    for (PolicyEvaluationContext context : contexts) {
+      assertThat(plan.evaluate(context)).isEqualTo(fullScan(policies, context));
+    }
+  }
+
+  /**
+   * 역색인 없이 모든 정책을 우선순위 순서로 확인하는 기준 구현.
+   */
+  private static PolicyEvaluationResult fullScan(List<SessionPolicy> policies,
+      PolicyEvaluationContext context) {
+    for (SessionPolicy policy : policies) {
+      PolicyScopeIndex index = policy.getScopeIndex();
+      if (!index.includes(PolicyScopeType.TENANT, context.tenantId())
+          || index.excludes(PolicyScopeType.TENANT, context.tenantId())) {
+        continue;
+      }
+      Set<String> users = index.includes(PolicyScopeType.USER);
+      String userId = context.userId();
+      if (!users.isEmpty() && (userId == null || !users.contains(userId))) {
+        continue;
+      }
+      if (userId != null && index.excludes(PolicyScopeType.USER).contains(userId)) {
+        continue;
+      }
+      Set<String> groups = index.includes(PolicyScopeType.GROUP);
+      if (!groups.isEmpty() && context.groupIds().stream().noneMatch(groups::contains)) {
+        continue;
+      }
+      if (context.groupIds().stream()
+          .anyMatch(index.excludes(PolicyScopeType.GROUP)::contains)) {
+        continue;
+      }
+      if (!matcher(policy).matches(context)) {
+        continue;
+      }
+      return policy.getEffect() == PolicyEffect.DENY ? PolicyEvaluationResult.deny(policy)
+          : PolicyEvaluationResult.allow(policy);
+    }
+    return PolicyEvaluationResult.allow(null);
+  }
+
+  private static PolicyConditionMatcher matcher(SessionPolicy policy) {
+    if (policy.getConditionType() == null) {
+      return PolicyConditionMatcher.NEVER;
+    }
+    return switch (policy.getConditionType()) {
+      case IP_RANGE -> context -> context.clientIp() != null
+          && context.clientIp().startsWith("10.");
+      case LOCATION -> context -> "KR".equals(context.countryCode());
+      case TIME_WINDOW -> context -> context.requestDateTime().getHour() < 12;
+    };
+  }
+
+  private static List<SessionPolicy> randomPolicies(Random random, int count) {
+    List<SessionPolicy> policies = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      SessionPolicy policy = policy(i + 1,
+          random.nextBoolean() ? PolicyEffect.ALLOW : PolicyEffect.DENY,
+          CONDITION_TYPES[random.nextInt(CONDITION_TYPES.length)]);
+      if (random.nextInt(4) == 0) {
+        policy.addScope(scope(PolicyScopeType.USER, pick(random, USERS), false));
+      } else if (random.nextInt(3) == 0) {
+        policy.addScope(scope(PolicyScopeType.GROUP, pick(random, GROUPS), false));
+      }
+      if (random.nextInt(4) == 0) {
+        policy.addScope(scope(PolicyScopeType.USER, pick(random, USERS), true));
+      }
+      if (random.nextInt(4) == 0) {
+        policy.addScope(scope(PolicyScopeType.GROUP, pick(random, GROUPS), true));
+      }
+      if (random.nextInt(20) == 0) {
+        policy.addScope(scope(PolicyScopeType.TENANT, "tenant1", true));
+      }
+      policies.add(policy);
+    }
+    return policies;
+  }
+
+  private static PolicyEvaluationContext randomContext(Random random) {
+    String userId = random.nextInt(4) == 0 ? null : pick(random, USERS);
+    Set<String> groupIds = new LinkedHashSet<>();
+    for (String group : GROUPS) {
+      if (random.nextInt(3) == 0) {
+        groupIds.add(group);
+      }
+    }
+    String clientIp = switch (random.nextInt(3)) {
+      case 0 -> null;
+      case 1 -> "10.1.2.3";
+      default -> "192.168.0.1";
+    };
+    String country = switch (random.nextInt(3)) {
+      case 0 -> null;
+      case 1 -> "KR";
+      default -> "US";
+    };
+    return context(userId, groupIds, clientIp, country, random.nextBoolean() ? 9 : 15);
+  }
+
+  private static PolicyEvaluationContext context(String userId, Set<String> groupIds,
+      String clientIp, String country, int hour) {
+    return new PolicyEvaluationContext("tenant1", userId, groupIds, clientIp, country,
+        ZonedDateTime.of(2025, 1, 1, hour, 0, 0, 0, ZoneOffset.UTC));
+  }
+
+  private static SessionPolicy policy(long id, PolicyEffect effect,
+      PolicyConditionType conditionType) {
+    SessionPolicy policy = new SessionPolicy();
+    ReflectionTestUtils.setField(policy, "id", id);
+    policy.setName("policy " + id);
+    policy.setEffect(effect);
+    policy.setConditionType(conditionType);
+    policy.setConditionValue(conditionType == null ? null : "{}");
+    policy.setPriority(1000 - (int) id);
+    policy.addScope(scope(PolicyScopeType.TENANT, "tenant1", false));
+    return policy;
+  }
+
+  private static SessionPolicyScope scope(PolicyScopeType type, String value, boolean excluded) {
+    SessionPolicyScope scope = new SessionPolicyScope();
+    scope.setScopeType(type);
+    scope.setScopeValue(value);
+    scope.setExcluded(excluded);
+    return scope;
+  }
+
+  private static String pick(Random random, List<String> values) {
+    return values.get(random.nextInt(values.size()));
+  }
+}
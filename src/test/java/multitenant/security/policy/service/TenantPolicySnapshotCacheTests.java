@@ -0,0 +1,56 @@
+package multitenant.security.policy.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import multitenant.security.policy.domain.SessionPolicy;
+import multitenant.security.policy.repository.SessionPolicyRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+class TenantPolicySnapshotCacheTests {
+
+  private SessionPolicyRepository repository;
+  private TenantPolicySnapshotCache cache;
+
+  @BeforeEach
+  void setUp() {
+    repository = Mockito.mock(SessionPolicyRepository.class);
+    cache = new TenantPolicySnapshotCache(repository,
+        Clock.fixed(Instant.parse("2025-01-01T00:00:00Z"), ZoneOffset.UTC), Duration.ofMinutes(5));
+  }
+
+  @Test
+  void reusesSnapshotUntilInvalidated() {
+    given(repository.findActiveForTenant("tenant1")).willReturn(List.of(new SessionPolicy()));
+
+    TenantPolicySnapshotCache.TenantPolicySnapshot first = cache.snapshot("tenant1");
+
+    assertThat(cache.snapshot("tenant1")).isSameAs(first);
+    cache.invalidateAll();
+    assertThat(cache.snapshot("tenant1")).isNotSameAs(first);
+    verify(repository, times(2)).findActiveForTenant("tenant1");
+  }
+
+  @Test
+  void doesNotCacheSnapshotLoadedAcrossInvalidation() {
+    given(repository.findActiveForTenant("tenant1")).willAnswer(invocation -> {
+      cache.invalidateAll();
+      return List.of();
+    }).willReturn(List.of());
+
+    cache.snapshot("tenant1");
+    cache.snapshot("tenant1");
+    cache.snapshot("tenant1");
+
+    verify(repository, times(2)).findActiveForTenant("tenant1");
+  }
+}
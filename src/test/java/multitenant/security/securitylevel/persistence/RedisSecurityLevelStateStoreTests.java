@@ -0,0 +1,122 @@
+package multitenant.security.securitylevel.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import multitenant.security.securitylevel.SecurityLevel;
+import multitenant.security.securitylevel.SecurityLevelState;
+import multitenant.security.securitylevel.service.SecurityLevelService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+    "security.level.cache.enabled=true",
+    "security.level.cache.write-behind-interval=PT1H",
+    "security.level.cache.write-behind-max-pending=3",
+    "security.level.cache.near-ttl=PT0S"
+})
+class RedisSecurityLevelStateStoreTests {
+
+  @Autowired
+  private SecurityLevelService securityLevelService;
+
+  @Autowired
+  private RedisSecurityLevelStateStore stateStore;
+
+  @Autowired
+  private SecurityLevelStateRepository stateRepository;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  private String tenantId;
+
+  @BeforeEach
+  void setUp() {
+    tenantId = "cache-" + UUID.randomUUID();
+  }
+
+  @Test
+  void servesStateFromRedisAndWritesBehindToDatabase() {
+    securityLevelService.registerAction(tenantId, "alice", "SUSPICIOUS_IP", "flag");
+
+    assertThat(securityLevelService.resolveSecurityLevel(tenantId, "alice"))
+        .isEqualTo(SecurityLevel.HIGH);
+    assertThat(stateRepository.findById(new SecurityLevelStateId(tenantId, "alice"))).isEmpty();
+
+    stateStore.flushPendingWrites();
+
+    assertThat(stateRepository.findById(new SecurityLevelStateId(tenantId, "alice")))
+        .get()
+        .extracting(SecurityLevelStateEntity::getLevel)
+        .isEqualTo(SecurityLevel.HIGH);
+    assertThat(stateStore.pendingWriteCount()).isZero();
+  }
+
+  @Test
+  void setsRedisTtlFromExpiresAt() {
+    SecurityLevelState state = securityLevelService.registerAction(tenantId, "bob",
+        "LOGIN_FAILURE", "attempt");
+
+    Long ttlSeconds = redisTemplate.getExpire("octatco:sso:security-level:" + tenantId + ":bob");
+
+    assertThat(state.level()).isEqualTo(SecurityLevel.MEDIUM);
+    assertThat(ttlSeconds).isBetween(29L * 60, 30L * 60);
+  }
+
+  @Test
+  void treatsRedisMissAsLowUntilRestoredFromDatabase() {
+    securityLevelService.registerAction(tenantId, "carol", "SUSPICIOUS_IP", "flag");
+    stateStore.flushPendingWrites();
+    String key = "octatco:sso:security-level:" + tenantId + ":carol";
+    redisTemplate.delete(key);
+
+    assertThat(securityLevelService.resolveSecurityLevel(tenantId, "carol"))
+        .isEqualTo(SecurityLevel.LOW);
+
+    assertThat(stateStore.restoreFromDatabase()).isPositive();
+    assertThat(securityLevelService.resolveSecurityLevel(tenantId, "carol"))
+        .isEqualTo(SecurityLevel.HIGH);
+    assertThat(redisTemplate.getExpire(key)).isPositive();
+  }
+
+  @Test
+  void servesUnflushedStateWhenRedisKeyIsLost() {
+    securityLevelService.registerAction(tenantId, "dave", "SUSPICIOUS_IP", "flag");
+    redisTemplate.delete("octatco:sso:security-level:" + tenantId + ":dave");
+
+    assertThat(securityLevelService.resolveSecurityLevel(tenantId, "dave"))
+        .isEqualTo(SecurityLevel.HIGH);
+    stateStore.flushPendingWrites();
+  }
+
+  @Test
+  void writesDirectlyToDatabaseBeyondPendingLimit() {
+    stateStore.flushPendingWrites();
+    long synchronousWrites = stateStore.synchronousWriteCount();
+    SecurityLevelState state = new SecurityLevelState(SecurityLevel.MEDIUM,
+        Instant.now().plus(Duration.ofMinutes(10)), 1);
+
+    for (int i = 0; i < 4; i++) {
+      stateStore.save(tenantId, "user" + i, state);
+    }
+    stateStore.save(tenantId, "user0", state);
+
+    assertThat(stateStore.pendingWriteCount()).isEqualTo(3);
+    assertThat(stateStore.synchronousWriteCount()).isEqualTo(synchronousWrites + 1);
+    assertThat(stateRepository.findByTenantId(tenantId))
+        .extracting(SecurityLevelStateEntity::getUserId)
+        .containsExactly("user3");
+    stateStore.flushPendingWrites();
+    assertThat(stateRepository.findByTenantId(tenantId)).hasSize(4);
+  }
+}
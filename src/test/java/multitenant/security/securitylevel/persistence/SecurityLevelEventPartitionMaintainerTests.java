@@ -0,0 +1,123 @@
+package multitenant.security.securitylevel.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import multitenant.security.securitylevel.persistence.SecurityLevelEventPartitionMaintainer.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+class SecurityLevelEventPartitionMaintainerTests {
+
+  private static final Instant NOW = Instant.parse("2025-01-10T13:00:00Z");
+  private static final Instant CUTOFF = Instant.parse("2025-01-08T13:00:00Z");
+
+  private JdbcTemplate jdbcTemplate;
+  private SecurityLevelEventPartitionMaintainer maintainer;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = mock(JdbcTemplate.class);
+    SecurityLevelProperties properties = new SecurityLevelProperties();
+    properties.getPartitioning().setPrecreate(1);
+    maintainer = new SecurityLevelEventPartitionMaintainer(jdbcTemplate, properties);
+  }
+
+  @Test
+  void scheduledMaintenanceNeverConvertsAnUnpartitionedTable() {
+    givenPartitions(List.of());
+
+    assertThatThrownBy(() -> maintainer.maintain(NOW, CUTOFF))
+        .isInstanceOf(IllegalStateException.class);
+    verify(jdbcTemplate, never()).execute(anyString());
+  }
+
+  @Test
+  void maintenanceAddsAheadAndDropsExpiredPartitions() {
+    givenPartitions(List.of(
+        new Partition("p_history", LocalDateTime.parse("2025-01-08T00:00:00")),
+        new Partition("p20250108", LocalDateTime.parse("2025-01-09T00:00:00")),
+        new Partition("p20250109", LocalDateTime.parse("2025-01-10T00:00:00")),
+        new Partition("p20250110", LocalDateTime.parse("2025-01-11T00:00:00")),
+        new Partition("pmax", null)));
+
+    int dropped = maintainer.maintain(NOW, CUTOFF);
+
+    assertThat(dropped).isEqualTo(1);
+    verify(jdbcTemplate).execute("ALTER TABLE security_level_event REORGANIZE PARTITION pmax "
+        + "INTO (PARTITION p20250111 VALUES LESS THAN ('2025-01-12 00:00:00'), "
+        + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    verify(jdbcTemplate).execute("ALTER TABLE security_level_event DROP PARTITION p_history");
+  }
+
+  @Test
+  void explicitConversionRebuildsPrimaryKeyAndPartitionsTable() {
+    givenPartitions(List.of());
+
+    maintainer.convert(NOW, CUTOFF);
+
+    verify(jdbcTemplate).execute(
+        "ALTER TABLE security_level_event DROP PRIMARY KEY, ADD PRIMARY KEY (id, occurred_at)");
+    verify(jdbcTemplate).execute("ALTER TABLE security_level_event "
+        + "PARTITION BY RANGE COLUMNS(occurred_at) ("
+        + "PARTITION p_history VALUES LESS THAN ('2025-01-09 00:00:00'), "
+        + "PARTITION p20250109 VALUES LESS THAN ('2025-01-10 00:00:00'), "
+        + "PARTITION p20250110 VALUES LESS THAN ('2025-01-11 00:00:00'), "
+        + "PARTITION p20250111 VALUES LESS THAN ('2025-01-12 00:00:00'), "
+        + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+  }
+
+  @Test
+  void refusesToConvertAnAlreadyPartitionedTable() {
+    givenPartitions(List.of(new Partition("pmax", null)));
+
+    assertThatThrownBy(() -> maintainer.convert(NOW, CUTOFF))
+        .isInstanceOf(IllegalStateException.class);
+    verify(jdbcTemplate, never()).execute(anyString());
+  }
+
+  @Test
+  void plansDailyPartitionsThroughPrecreatedDays() {
+    List<Partition> plan = SecurityLevelEventPartitionMaintainer.plan(PartitionGranularity.DAILY,
+        LocalDateTime.parse("2025-01-02T00:00:00"), LocalDateTime.parse("2025-01-02T13:45:00"), 2);
+
+    assertThat(plan).containsExactly(
+        new Partition("p20250102", LocalDateTime.parse("2025-01-03T00:00:00")),
+        new Partition("p20250103", LocalDateTime.parse("2025-01-04T00:00:00")),
+        new Partition("p20250104", LocalDateTime.parse("2025-01-05T00:00:00")));
+  }
+
+  @Test
+  void plansNothingWhenFuturePartitionsAlreadyExist() {
+    List<Partition> plan = SecurityLevelEventPartitionMaintainer.plan(PartitionGranularity.HOURLY,
+        LocalDateTime.parse("2025-01-02T16:00:00"), LocalDateTime.parse("2025-01-02T13:10:00"), 2);
+
+    assertThat(plan).isEmpty();
+  }
+
+  @Test
+  void parsesPartitionDescriptions() {
+    assertThat(SecurityLevelEventPartitionMaintainer.parseBound("'2025-01-03 00:00:00'"))
+        .isEqualTo(LocalDateTime.parse("2025-01-03T00:00:00"));
+    assertThat(SecurityLevelEventPartitionMaintainer.parseBound("MAXVALUE")).isNull();
+  }
+
+  private void givenPartitions(List<Partition> partitions) {
+    given(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Partition>>any(),
+        eq("security_level_event")))
+        .willReturn(partitions);
+  }
+}
@@ -0,0 +1,94 @@
+package multitenant.security.securitylevel.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import multitenant.security.securitylevel.config.SecurityLevelProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecurityLevelCleanupLockTests {
+
+  @Autowired
+  private SecurityLevelCleanupLock cleanupLock;
+
+  @Autowired
+  private SecurityLevelProperties properties;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @BeforeEach
+  void setUp() {
+    properties.setCleanupLockKey("test:cleanup-lock:" + UUID.randomUUID());
+  }
+
+  @Test
+  void onlyOneHolderAtATime() {
+    Optional<SecurityLevelCleanupLock.Lease> first = cleanupLock.tryAcquire();
+
+    assertThat(first).isPresent();
+    assertThat(cleanupLock.tryAcquire()).isEmpty();
+
+    cleanupLock.release(first.get());
+    Optional<SecurityLevelCleanupLock.Lease> second = cleanupLock.tryAcquire();
+
+    assertThat(second).isPresent();
+    assertThat(second.get().owner()).isNotEqualTo(first.get().owner());
+    assertThat(cleanupLock.renew(first.get())).isFalse();
+    assertThat(cleanupLock.renew(second.get())).isTrue();
+    cleanupLock.release(second.get());
+  }
+
+  @Test
+  void staleHolderCannotReleaseOrRenewAfterTakeover() {
+    SecurityLevelCleanupLock.Lease stale = cleanupLock.tryAcquire().orElseThrow();
+    // 만료 후 다른 노드가 가져간 상황을 흉내낸다.
+    redisTemplate.delete(stale.key());
+    SecurityLevelCleanupLock.Lease current = cleanupLock.tryAcquire().orElseThrow();
+
+    cleanupLock.release(stale);
+
+    assertThat(cleanupLock.renew(stale)).isFalse();
+    assertThat(redisTemplate.opsForValue().get(current.key())).isEqualTo(current.owner());
+    cleanupLock.release(current);
+  }
+
+  @Test
+  void renewsLeaseWhileLongTaskRunsAndReleasesAfterwards() {
+    Duration ttl = properties.getCleanupLockTtl();
+    properties.setCleanupLockTtl(Duration.ofMillis(300));
+    try {
+      SecurityLevelCleanupLock.Lease lease = cleanupLock.tryAcquire().orElseThrow();
+      AtomicBoolean heldThroughout = new AtomicBoolean();
+
+      cleanupLock.runHolding(lease, () -> {
+        sleep(Duration.ofMillis(900));
+        heldThroughout.set(lease.owner().equals(redisTemplate.opsForValue().get(lease.key()))
+            && cleanupLock.tryAcquire().isEmpty());
+      });
+
+      assertThat(heldThroughout).isTrue();
+      assertThat(redisTemplate.hasKey(lease.key())).isFalse();
+    } finally {
+      properties.setCleanupLockTtl(ttl);
+    }
+  }
+
+  private static void sleep(Duration duration) {
+    try {
+      Thread.sleep(duration);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
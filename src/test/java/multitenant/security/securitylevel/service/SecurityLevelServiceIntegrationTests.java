@@ -8,6 +8,7 @@ import java.time.Instant;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import multitenant.security.securitylevel.SecurityLevel;
 import multitenant.security.securitylevel.SecurityLevelState;
 import multitenant.security.securitylevel.UserActionEvent;
@@ -35,6 +36,11 @@ import org.springframework.test.context.TestPropertySource;
     "security.level.retention-events=5",
     "security.level.retention-window=PT1H",
     "security.level.cleanup-interval=PT1H",
+    "security.level.ingestion.flush-interval=PT1H",
+    "security.level.ingestion.max-attempts=2",
+    "security.level.prune-interval=PT1H",
+    "security.level.prune-delete-batch-size=1",
+    "security.level.cleanup-batch-size=2",
     "security.level.policies.LOGIN_FAILURE.level=MEDIUM",
     "security.level.policies.LOGIN_FAILURE.ttl=PT30M",
     "security.level.policies.SUSPICIOUS_IP.level=HIGH",
@@ -58,6 +64,15 @@ class SecurityLevelServiceIntegrationTests {
   @Autowired
   private SecurityLevelProperties properties;
 
+  @Autowired
+  private SecurityLevelIngestionQueue ingestionQueue;
+
+  @Autowired
+  private SecurityLevelEventPruner eventPruner;
+
+  @Autowired
+  private SecurityLevelDataCleaner dataCleaner;
+
   @Test
   void registerActionPersistsStateAndEventsWithConfiguredTtl() {
     Instant baseline = testClock.instant();
@@ -81,6 +96,96 @@ class SecurityLevelServiceIntegrationTests {
     assertThat(events.get(0).getActionType()).isEqualTo("LOGIN_FAILURE");
   }
 
+  @Test
+  void readingUnknownUserDoesNotMaterializeDefaultState() {
+    SecurityLevelState state = securityLevelService.currentLevel("tenantD", "user4");
+
+    assertThat(state.level()).isEqualTo(SecurityLevel.LOW);
+    assertThat(stateRepository.findById(new SecurityLevelStateId("tenantD", "user4"))).isEmpty();
+
+    securityLevelService.registerAction("tenantD", "user4", "LOGIN_FAILURE", "attempt");
+    testClock.advance(Duration.ofMinutes(31));
+
+    assertThat(securityLevelService.currentLevel("tenantD", "user4").level())
+        .isEqualTo(SecurityLevel.LOW);
+    assertThat(stateRepository.findById(new SecurityLevelStateId("tenantD", "user4")))
+        .get()
+        .extracting(SecurityLevelStateEntity::getLevel)
+        .isEqualTo(SecurityLevel.MEDIUM);
+  }
+
+  @Test
+  void registerActionsFoldsEventsPerUserInTimestampOrder() {
+    Instant baseline = testClock.instant();
+    List<UserActionEvent> events = List.of(
+        new UserActionEvent("tenantE", "user5", "SUSPICIOUS_IP", "second",
+            baseline.plusSeconds(10)),
+        new UserActionEvent("tenantE", "user6", "LOGIN_FAILURE", "only", baseline),
+        new UserActionEvent("tenantE", "user5", "LOGIN_FAILURE", "first", baseline));
+
+    Map<SecurityLevelStateId, SecurityLevelState> results =
+        securityLevelService.registerActions(events);
+
+    SecurityLevelState user5 = results.get(new SecurityLevelStateId("tenantE", "user5"));
+    assertThat(user5.level()).isEqualTo(SecurityLevel.HIGH);
+    assertThat(user5.score()).isEqualTo(15);
+    assertThat(user5.expiresAt()).isEqualTo(baseline.plusSeconds(10).plus(Duration.ofHours(2)));
+    assertThat(results.get(new SecurityLevelStateId("tenantE", "user6")).level())
+        .isEqualTo(SecurityLevel.MEDIUM);
+    assertThat(securityLevelService.recentActions("tenantE", "user5"))
+        .extracting(UserActionEvent::actionDetail)
+        .containsExactly("second", "first");
+  }
+
+  @Test
+  void ingestionQueueAppliesEventsOnFlush() {
+    ingestionQueue.submit("tenantF", "user7", "LOGIN_FAILURE", "queued");
+
+    assertThat(stateRepository.findById(new SecurityLevelStateId("tenantF", "user7"))).isEmpty();
+
+    ingestionQueue.flush();
+
+    assertThat(securityLevelService.currentLevel("tenantF", "user7").level())
+        .isEqualTo(SecurityLevel.MEDIUM);
+    assertThat(ingestionQueue.processedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void failedIngestionEventIsRequeuedThenDroppedWithoutLosingItsBatch() {
+    ingestionQueue.submit("tenantF", "user7", "LOGIN_FAILURE", "attempt");
+    ingestionQueue.submit("tenantF", "user8", "X".repeat(100), "too long action type");
+    ingestionQueue.submit("tenantF", "user9", "SUSPICIOUS_IP", "flag");
+
+    ingestionQueue.flush();
+
+    assertThat(ingestionQueue.failedBatchCount()).isEqualTo(1);
+    assertThat(ingestionQueue.processedCount()).isEqualTo(2);
+    assertThat(ingestionQueue.pendingCount()).isEqualTo(1);
+    assertThat(ingestionQueue.droppedCount()).isZero();
+    assertThat(securityLevelService.currentLevel("tenantF", "user7").level())
+        .isEqualTo(SecurityLevel.MEDIUM);
+    assertThat(securityLevelService.currentLevel("tenantF", "user9").level())
+        .isEqualTo(SecurityLevel.HIGH);
+
+    ingestionQueue.flush();
+
+    assertThat(ingestionQueue.pendingCount()).isZero();
+    assertThat(ingestionQueue.droppedCount()).isEqualTo(1);
+    assertThat(ingestionQueue.processedCount()).isEqualTo(2);
+  }
+
+  @Test
+  void untimedEventsInOneBatchKeepTheirOrder() {
+    securityLevelService.registerActions(List.of(
+        new UserActionEvent("tenantI", "user1", "LOGIN_FAILURE", "first", null),
+        new UserActionEvent("tenantI", "user1", "LOGIN_FAILURE", "second", null),
+        new UserActionEvent("tenantI", "user1", "LOGIN_FAILURE", "third", null)));
+
+    assertThat(securityLevelService.recentActions("tenantI", "user1"))
+        .extracting(UserActionEvent::actionDetail)
+        .containsExactly("third", "second", "first");
+  }
+
   @Test
   void retentionPolicyKeepsMostRecentEventsOnly() {
     for (int i = 0; i < properties.getRetentionEvents() + 2; i++) {
@@ -88,6 +193,12 @@ class SecurityLevelServiceIntegrationTests {
       testClock.advance(Duration.ofMinutes(1));
     }
 
+    assertThat(eventPruner.dirtyUserCount()).isEqualTo(1);
+    eventPruner.pruneDirtyUsers();
+
+    assertThat(eventPruner.prunedCount()).isEqualTo(2);
+    assertThat(eventRepository.findByTenantIdAndUserIdOrderByOccurredAtDesc("tenantB", "user2",
+        PageRequest.of(0, 100))).hasSize(properties.getRetentionEvents());
     List<SecurityLevelEventEntity> recentEvents =
         eventRepository.findByTenantIdAndUserIdOrderByOccurredAtDesc("tenantB", "user2",
             PageRequest.of(0, properties.getRetentionEvents()));
@@ -113,6 +224,42 @@ class SecurityLevelServiceIntegrationTests {
     assertThat(events).isEmpty();
   }
 
+  @Test
+  void cleanupDeletesInChunksAndRecordsTotals() {
+    for (int i = 0; i < 5; i++) {
+      securityLevelService.registerAction("tenantG", "user" + i, "LOGIN_FAILURE", "event " + i);
+      testClock.advance(Duration.ofSeconds(1));
+    }
+
+    testClock.advance(Duration.ofHours(2));
+    securityLevelService.cleanupExpiredData();
+
+    SecurityLevelDataCleaner.Result result = dataCleaner.lastResult();
+    assertThat(result.completed()).isTrue();
+    assertThat(result.deletedStates()).isEqualTo(5);
+    assertThat(result.deletedEvents()).isEqualTo(5);
+    assertThat(dataCleaner.deletedEventCount()).isEqualTo(5);
+    assertThat(stateRepository.findByTenantId("tenantG")).isEmpty();
+  }
+
+  @Test
+  void cleanupChunksAreBoundedByRowCountWhenTimestampsCollide() {
+    for (int i = 0; i < 5; i++) {
+      securityLevelService.registerAction("tenantH", "user" + i, "LOGIN_FAILURE", "same instant");
+    }
+    testClock.advance(Duration.ofHours(2));
+    Instant now = testClock.instant();
+    int[] chunks = {0};
+
+    // 상태 정리는 대상이 없도록 하고, 이벤트 청크는 한 번만 허용한다.
+    SecurityLevelDataCleaner.Result result = dataCleaner.cleanup(Instant.EPOCH,
+        now.minus(properties.getRetentionWindow()), () -> chunks[0]++ < 2);
+
+    assertThat(result.deletedEvents()).isEqualTo(2);
+    assertThat(result.completed()).isFalse();
+    assertThat(eventRepository.count()).isEqualTo(3);
+  }
+
   @TestConfiguration
   static class ClockTestConfiguration {
 
@@ -0,0 +1,87 @@
+package multitenant.security.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import multitenant.security.policy.domain.PolicyEffect;
+import multitenant.security.securitylevel.SecurityLevel;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+class CompactSessionSerializerTests {
+
+  private final CompactSessionSerializer serializer = new CompactSessionSerializer();
+
+  @Test
+  void roundTripsRegisteredTypesInCompactForm() {
+    LinkedHashSet<String> groups = new LinkedHashSet<>(List.of("engineering", "security"));
+    List<Object> values = List.of("tenant1", 1_700_000_000_000L, 1800, Boolean.TRUE, groups,
+        SecurityLevel.HIGH, PolicyEffect.DENY);
+
+    for (Object value : values) {
+      byte[] bytes = serializer.serialize(value);
+
+      assertThat(bytes[0]).isEqualTo(CompactSessionSerializer.FORMAT_VERSION);
+      assertThat(bytes.length).isLessThan(RedisSerializer.java().serialize(value).length);
+      assertThat(serializer.deserialize(bytes)).isEqualTo(value);
+    }
+    assertThat(serializer.deserialize(serializer.serialize(groups)))
+        .isInstanceOf(LinkedHashSet.class)
+        .asInstanceOf(InstanceOfAssertFactories.ITERABLE)
+        .containsExactly("engineering", "security");
+  }
+
+  @Test
+  void readsLegacyJdkSerializedValues() {
+    byte[] legacy = RedisSerializer.java().serialize(SecurityLevel.MEDIUM);
+
+    assertThat(serializer.deserialize(legacy)).isEqualTo(SecurityLevel.MEDIUM);
+  }
+
+  @Test
+  void fallsBackToJdkForUnregisteredTypes() {
+    Map<String, Object> delta = new HashMap<>();
+    delta.put("sessionAttr:tenantId", "tenant1");
+    LinkedHashSet<Object> mixed = new LinkedHashSet<>(List.of("a", 1));
+
+    assertThat(serializer.deserialize(serializer.serialize(delta))).isEqualTo(delta);
+    assertThat(serializer.serialize(mixed)[0]).isEqualTo((byte) 0xAC);
+    assertThat(serializer.deserialize(serializer.serialize(mixed))).isEqualTo(mixed);
+  }
+
+  @Test
+  void jdkWriteFormatKeepsValuesReadableByOlderNodes() {
+    CompactSessionSerializer jdkWriter =
+        new CompactSessionSerializer(CompactSessionSerializer.WriteFormat.JDK);
+
+    byte[] bytes = jdkWriter.serialize("tenant1");
+
+    assertThat(RedisSerializer.java().deserialize(bytes)).isEqualTo("tenant1");
+  }
+
+  @Test
+  void rejectsStringSetSizeLargerThanRemainingBytes() {
+    byte[] corrupted = {CompactSessionSerializer.FORMAT_VERSION, 5, 0x7F, (byte) 0xFF,
+        (byte) 0xFF, (byte) 0xFF, 0, 0, 0, 1, 'a'};
+
+    assertThatThrownBy(() -> serializer.deserialize(corrupted))
+        .isInstanceOf(SerializationException.class);
+  }
+
+  @Test
+  void roundTripsTenantContextAsSingleCompactValue() {
+    TenantSessionContext context = new TenantSessionContext("tenant1", "alice",
+        new LinkedHashSet<>(List.of("engineering", "security")), null, "10.0.0.1");
+
+    byte[] bytes = serializer.serialize(context);
+
+    assertThat(bytes[0]).isEqualTo(CompactSessionSerializer.FORMAT_VERSION);
+    assertThat(serializer.deserialize(bytes)).isEqualTo(context);
+  }
+}
@@ -0,0 +1,138 @@
+package multitenant.security.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import multitenant.security.sessionlimit.service.SessionLimitSettings;
+import multitenant.security.sessionlimit.service.TenantSessionRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "session.redis.mode=lightweight",
+    "session.redis.legacy-index-cleanup=true"
+})
+@ActiveProfiles("test")
+class LightweightSessionRepositoryTests {
+
+  @Autowired
+  private SessionRepository<? extends Session> sessionRepository;
+
+  @Autowired
+  private TenantSessionRegistry tenantSessionRegistry;
+
+  @Autowired
+  private LegacySessionIndexCleaner legacySessionIndexCleaner;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @Autowired
+  private ApplicationContext applicationContext;
+
+  @Test
+  void storesOnlyTheSessionHash() {
+    LightweightSessionRepository repository = repository();
+    Session session = repository.createSession();
+    session.setAttribute("tenantId", "tenant1");
+    repository.save(session);
+
+    String key = "octatco:sso:sessions:" + session.getId();
+    assertThat(redisTemplate.hasKey(key)).isTrue();
+    assertThat(redisTemplate.getExpire(key)).isPositive();
+    assertThat(redisTemplate.hasKey("octatco:sso:sessions:expires:" + session.getId())).isFalse();
+    assertThat((String) repository.findById(session.getId()).getAttribute("tenantId"))
+        .isEqualTo("tenant1");
+    repository.deleteById(session.getId());
+    assertThat(repository.findById(session.getId())).isNull();
+  }
+
+  @Test
+  void deletingSessionUnregistersItFromTenantRegistry() {
+    LightweightSessionRepository repository = repository();
+    String tenantId = "lightweight-" + UUID.randomUUID();
+    Session session = repository.createSession();
+    session.setAttribute(TenantSessionContext.ATTRIBUTE,
+        new TenantSessionContext(tenantId, "alice", Set.of(), null, null));
+    repository.save(session);
+    tenantSessionRegistry.register(tenantId, "alice", session.getId(), null,
+        new SessionLimitSettings(10, Duration.ZERO, Duration.ZERO));
+
+    repository.deleteById(session.getId());
+
+    assertThat(tenantSessionRegistry.count(tenantId)).isZero();
+    assertThat(tenantSessionRegistry.countForUser(tenantId, "alice")).isZero();
+  }
+
+  @Test
+  void deletingUnknownSessionLeavesRegistryUntouched() {
+    String tenantId = "lightweight-" + UUID.randomUUID();
+    tenantSessionRegistry.register(tenantId, "alice", "missing-session", null,
+        new SessionLimitSettings(10, Duration.ZERO, Duration.ZERO));
+
+    repository().deleteById("missing-session");
+
+    assertThat(tenantSessionRegistry.count(tenantId)).isEqualTo(1);
+    tenantSessionRegistry.unregister(tenantId, "missing-session");
+  }
+
+  @Test
+  void batchDeletePublishesEventsOnlyForExistingSessions() {
+    LightweightSessionRepository repository = repository();
+    String tenantId = "lightweight-" + UUID.randomUUID();
+    SessionLimitSettings settings = new SessionLimitSettings(10, Duration.ZERO, Duration.ZERO);
+    List<String> sessionIds = new ArrayList<>();
+    for (String userId : List.of("alice", "bob")) {
+      Session session = repository.createSession();
+      session.setAttribute(TenantSessionContext.ATTRIBUTE,
+          new TenantSessionContext(tenantId, userId, Set.of(), null, null));
+      repository.save(session);
+      tenantSessionRegistry.register(tenantId, userId, session.getId(), null, settings);
+      sessionIds.add(session.getId());
+    }
+    tenantSessionRegistry.register(tenantId, "carol", "missing-session", null, settings);
+
+    repository.deleteAllById(List.of(sessionIds.get(0), "missing-session", sessionIds.get(1)));
+
+    assertThat(sessionIds).allSatisfy(id -> assertThat(repository.findById(id)).isNull());
+    assertThat(tenantSessionRegistry.count(tenantId)).isEqualTo(1);
+    tenantSessionRegistry.unregister(tenantId, "missing-session");
+  }
+
+  @Test
+  void doesNotCreateIndexedRepositoryInLightweightMode() {
+    assertThat(applicationContext.getBeansOfType(RedisIndexedSessionRepository.class)).isEmpty();
+  }
+
+  @Test
+  void cleanerRemovesLegacyPrincipalIndexKeysOnly() {
+    String indexKey = "octatco:sso:index:"
+        + "org.springframework.session.FindByIndexNameSessionRepository.PRINCIPAL_NAME_INDEX_NAME:"
+        + UUID.randomUUID();
+    redisTemplate.opsForSet().add(indexKey, "legacy-session");
+    Session session = repository().createSession();
+    repository().save(session);
+
+    assertThat(legacySessionIndexCleaner.cleanup()).isPositive();
+
+    assertThat(redisTemplate.hasKey(indexKey)).isFalse();
+    assertThat(repository().findById(session.getId())).isNotNull();
+    repository().deleteById(session.getId());
+  }
+
+  private LightweightSessionRepository repository() {
+    assertThat(sessionRepository).isInstanceOf(LightweightSessionRepository.class);
+    return (LightweightSessionRepository) sessionRepository;
+  }
+}
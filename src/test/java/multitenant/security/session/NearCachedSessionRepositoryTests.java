@@ -0,0 +1,206 @@
+package multitenant.security.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.events.SessionDestroyedEvent;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest(properties = {
+    "session.near-cache.enabled=true",
+    "session.near-cache.ttl=PT1M",
+    "session.near-cache.max-entries-per-tenant=2"
+})
+@ActiveProfiles("test")
+class NearCachedSessionRepositoryTests {
+
+  @Autowired
+  private SessionRepository<? extends Session> sessionRepository;
+
+  @Autowired
+  private SessionNearCache nearCache;
+
+  @Autowired
+  @Qualifier("springSessionDefaultRedisSerializer")
+  private RedisSerializer<Object> serializer;
+
+  @Test
+  void servesRepeatedReadsFromNearCache() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-hit");
+    long hits = nearCache.hitCount();
+
+    RedisSession first = repository.findById(session.getId());
+    first.setAttribute("userId", "alice");
+    repository.save(first);
+    RedisSession second = repository.findById(session.getId());
+
+    assertThat(nearCache.hitCount()).isEqualTo(hits + 2);
+    assertThat((String) second.getAttribute("userId")).isEqualTo("alice");
+    assertThat(second).isNotSameAs(first);
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void evictsPreviousIdWhenSessionIdChanges() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-rotate");
+    RedisSession loaded = repository.findById(session.getId());
+    String oldId = loaded.getId();
+
+    String newId = loaded.changeSessionId();
+    repository.save(loaded);
+
+    assertThat(nearCache.get(oldId)).isNull();
+    assertThat(repository.findById(oldId)).isNull();
+    assertThat(repository.findById(newId)).isNotNull();
+    repository.deleteById(newId);
+  }
+
+  @Test
+  void evictsOnInvalidationFromAnotherNode() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-remote");
+    assertThat(nearCache.get(session.getId())).isNotNull();
+
+    byte[] body = serializer.serialize("other-node:" + session.getId());
+    nearCache.onMessage(new DefaultMessage(nearCache.getChannel().getBytes(), body), null);
+
+    assertThat(nearCache.get(session.getId())).isNull();
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void ignoresOwnInvalidationMessages() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-self");
+
+    byte[] body = serializer.serialize(nearCache.invalidationMessage(session.getId()));
+    nearCache.onMessage(new DefaultMessage(nearCache.getChannel().getBytes(), body), null);
+
+    assertThat(nearCache.get(session.getId())).isNotNull();
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void dropsEntryWhenAnotherNodeChangedSessionDuringRequest() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-race");
+    long staleWrites = nearCache.staleWriteCount();
+
+    RedisSession loaded = repository.findById(session.getId());
+    byte[] body = serializer.serialize("other-node:" + session.getId());
+    nearCache.onMessage(new DefaultMessage(nearCache.getChannel().getBytes(), body), null);
+    loaded.setAttribute("userId", "alice");
+    repository.save(loaded);
+
+    assertThat(nearCache.get(session.getId())).isNull();
+    assertThat(nearCache.staleWriteCount()).isEqualTo(staleWrites + 1);
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void inFlightSaveDoesNotReviveDeletedSession() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-delete");
+
+    RedisSession loaded = repository.findById(session.getId());
+    repository.deleteById(session.getId());
+    loaded.setAttribute("userId", "alice");
+    repository.save(loaded);
+
+    assertThat(nearCache.get(session.getId())).isNull();
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void inFlightSaveDoesNotReviveLoggedOutSession() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-logout");
+
+    RedisSession loaded = repository.findById(session.getId());
+    nearCache.onSessionDestroyed(new SessionDestroyedEvent(this, session));
+    loaded.setAttribute("userId", "alice");
+    repository.save(loaded);
+
+    assertThat(nearCache.get(session.getId())).isNull();
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void olderCopyFromConcurrentRequestDoesNotOverwriteCachedSave() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = newSession(repository, "near-tenant-burst");
+
+    RedisSession first = repository.findById(session.getId());
+    RedisSession second = repository.findById(session.getId());
+    first.setAttribute("first", "a");
+    repository.save(first);
+    second.setAttribute("second", "b");
+    repository.save(second);
+
+    assertThat(nearCache.get(session.getId())).isNull();
+    RedisSession reloaded = repository.findById(session.getId());
+    assertThat((String) reloaded.getAttribute("first")).isEqualTo("a");
+    assertThat((String) reloaded.getAttribute("second")).isEqualTo("b");
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void cachedAttributeValuesAreNotSharedBetweenRequests() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession session = repository.createSession();
+    session.setAttribute(TenantSessionContext.ATTRIBUTE,
+        new TenantSessionContext("near-tenant-copy", null, Set.of(), null, null));
+    session.setAttribute("recent", new ArrayList<>(List.of("a")));
+    repository.save(session);
+
+    List<String> first = repository.findById(session.getId()).getAttribute("recent");
+    first.add("b");
+    List<String> second = repository.findById(session.getId()).getAttribute("recent");
+
+    assertThat(second).containsExactly("a");
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void stopsCachingWhenTenantCapIsReached() {
+    NearCachedSessionRepository repository = repository();
+    RedisSession first = newSession(repository, "near-tenant-cap");
+    RedisSession second = newSession(repository, "near-tenant-cap");
+    RedisSession third = newSession(repository, "near-tenant-cap");
+
+    assertThat(nearCache.get(first.getId())).isNotNull();
+    assertThat(nearCache.get(second.getId())).isNotNull();
+    assertThat(nearCache.get(third.getId())).isNull();
+    assertThat(repository.findById(third.getId())).isNotNull();
+
+    repository.deleteById(first.getId());
+    repository.deleteById(second.getId());
+    repository.deleteById(third.getId());
+  }
+
+  private NearCachedSessionRepository repository() {
+    assertThat(sessionRepository).isInstanceOf(NearCachedSessionRepository.class);
+    return (NearCachedSessionRepository) sessionRepository;
+  }
+
+  private static RedisSession newSession(NearCachedSessionRepository repository, String tenantId) {
+    RedisSession session = repository.createSession();
+    session.setAttribute(TenantSessionContext.ATTRIBUTE,
+        new TenantSessionContext(tenantId, null, Set.of(), null, null));
+    repository.save(session);
+    return session;
+  }
+}
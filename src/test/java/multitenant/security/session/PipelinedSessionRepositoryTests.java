@@ -0,0 +1,84 @@
+package multitenant.security.session;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.session.Session;
+import org.springframework.session.SessionRepository;
+import org.springframework.session.data.redis.RedisIndexedSessionRepository.RedisSession;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PipelinedSessionRepositoryTests {
+
+  @Autowired
+  private SessionRepository<? extends Session> sessionRepository;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @Test
+  void primaryRepositorySavesThroughPipeline() {
+    assertThat(sessionRepository).isInstanceOf(PipelinedSessionRepository.class);
+    PipelinedSessionRepository repository = (PipelinedSessionRepository) sessionRepository;
+    long before = repository.pipelinedSaveCount();
+
+    RedisSession session = repository.createSession();
+    session.setAttribute("tenantId", "tenant1");
+    repository.save(session);
+
+    RedisSession loaded = repository.findById(session.getId());
+    assertThat(loaded).isNotNull();
+    assertThat((String) loaded.getAttribute("tenantId")).isEqualTo("tenant1");
+    assertThat(repository.pipelinedSaveCount()).isEqualTo(before + 1);
+    repository.deleteById(session.getId());
+  }
+
+  @Test
+  void deletesBatchOfSessionsInOnePipeline() {
+    PipelinedSessionRepository repository = (PipelinedSessionRepository) sessionRepository;
+    List<String> sessionIds = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      RedisSession session = repository.createSession();
+      session.setAttribute("tenantId", "tenant1");
+      repository.save(session);
+      sessionIds.add(session.getId());
+    }
+    long before = repository.pipelinedDeleteCount();
+
+    repository.deleteAllById(sessionIds);
+
+    assertThat(repository.pipelinedDeleteCount()).isEqualTo(before + 1);
+    for (String id : sessionIds) {
+      assertThat(repository.findById(id)).isNull();
+      assertThat(redisTemplate.hasKey("octatco:sso:sessions:expires:" + id)).isFalse();
+      assertThat(redisTemplate.getExpire("octatco:sso:sessions:" + id)).isBetween(1L, 300L);
+    }
+  }
+
+  @Test
+  void ignoresMissingKeyWhenRenamingRotatedSession() {
+    PipelinedSessionRepository repository = (PipelinedSessionRepository) sessionRepository;
+    RedisSession session = repository.createSession();
+    session.setAttribute("tenantId", "tenant1");
+    repository.save(session);
+    RedisSession loaded = repository.findById(session.getId());
+    String oldId = loaded.getId();
+
+    redisTemplate.delete("octatco:sso:sessions:" + oldId);
+    String newId = loaded.changeSessionId();
+    loaded.setAttribute("userId", "alice");
+    repository.save(loaded);
+
+    String newKey = "octatco:sso:sessions:" + newId;
+    assertThat(newId).isNotEqualTo(oldId);
+    assertThat(redisTemplate.opsForHash().hasKey(newKey, "sessionAttr:userId")).isTrue();
+    redisTemplate.delete(newKey);
+  }
+}
@@ -0,0 +1,101 @@
+package multitenant.security.sessionlimit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import multitenant.security.session.BatchSessionDeleter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.session.MapSession;
+import org.springframework.session.SessionRepository;
+
+class SessionEvictionQueueTests {
+
+  private SessionRepository<MapSession> sessionRepository;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    sessionRepository = Mockito.mock(SessionRepository.class);
+  }
+
+  @Test
+  void deletesEnqueuedSessionsOnlyWhenFlushed() {
+    SessionEvictionQueue queue = new SessionEvictionQueue(sessionRepository, 10, 2);
+
+    queue.enqueue(List.of("s1", "s2", "s3", "s1"));
+    verify(sessionRepository, never()).deleteById("s1");
+    assertThat(queue.pendingCount()).isEqualTo(4);
+
+    queue.flush();
+
+    verify(sessionRepository, times(2)).deleteById("s1");
+    verify(sessionRepository).deleteById("s2");
+    verify(sessionRepository).deleteById("s3");
+    assertThat(queue.pendingCount()).isZero();
+    assertThat(queue.evictedCount()).isEqualTo(4);
+  }
+
+  @Test
+  void deletesInlineWhenQueueIsFull() {
+    SessionEvictionQueue queue = new SessionEvictionQueue(sessionRepository, 1, 10);
+
+    queue.enqueue(List.of("s1", "s2"));
+
+    verify(sessionRepository).deleteById("s2");
+    verify(sessionRepository, never()).deleteById("s1");
+    assertThat(queue.evictedInlineCount()).isEqualTo(1);
+  }
+
+  @Test
+  void countsFailedDeletesAndContinuesWithTheBatch() {
+    SessionEvictionQueue queue = new SessionEvictionQueue(sessionRepository, 10, 10);
+    doThrow(new IllegalStateException("redis down")).when(sessionRepository).deleteById("s1");
+
+    queue.enqueue(List.of("s1", "s2"));
+    queue.flush();
+
+    verify(sessionRepository).deleteById("s2");
+    assertThat(queue.failedCount()).isEqualTo(1);
+    assertThat(queue.evictedCount()).isEqualTo(1);
+  }
+
+  @Test
+  void deletesEachBatchInOneRoundTripWhenRepositorySupportsIt() {
+    BatchRepository batchRepository = Mockito.mock(BatchRepository.class);
+    SessionEvictionQueue queue = new SessionEvictionQueue(batchRepository, 10, 2);
+
+    queue.enqueue(List.of("s1", "s2", "s3", "s4", "s5"));
+    queue.flush();
+
+    verify(batchRepository).deleteAllById(List.of("s1", "s2"));
+    verify(batchRepository).deleteAllById(List.of("s3", "s4"));
+    verify(batchRepository).deleteAllById(List.of("s5"));
+    verify(batchRepository, never()).deleteById(anyString());
+    assertThat(queue.evictedCount()).isEqualTo(5);
+  }
+
+  @Test
+  void countsWholeBatchAsFailedWhenBatchDeleteFails() {
+    BatchRepository batchRepository = Mockito.mock(BatchRepository.class);
+    doThrow(new IllegalStateException("redis down")).when(batchRepository)
+        .deleteAllById(anyCollection());
+    SessionEvictionQueue queue = new SessionEvictionQueue(batchRepository, 10, 10);
+
+    queue.enqueue(List.of("s1", "s2"));
+    queue.flush();
+
+    assertThat(queue.failedCount()).isEqualTo(2);
+    assertThat(queue.evictedCount()).isZero();
+  }
+
+  private interface BatchRepository extends SessionRepository<MapSession>, BatchSessionDeleter {
+  }
+}
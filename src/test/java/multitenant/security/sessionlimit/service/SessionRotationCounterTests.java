@@ -0,0 +1,40 @@
+package multitenant.security.sessionlimit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SessionRotationCounterTests {
+
+  @Autowired
+  private SessionRotationCounter counter;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  @Test
+  void countsRequestsOutsideTheSessionWithSessionTtl() {
+    String sessionId = UUID.randomUUID().toString();
+
+    assertThat(counter.increment(sessionId, Duration.ofMinutes(30))).isEqualTo(1);
+    assertThat(counter.increment(sessionId, Duration.ofMinutes(30))).isEqualTo(2);
+
+    String key = "octatco:sso:session-rotation:" + sessionId;
+    assertThat(redisTemplate.getExpire(key)).isBetween(29L * 60, 30L * 60);
+    assertThat(redisTemplate.hasKey("octatco:sso:sessions:" + sessionId)).isFalse();
+
+    counter.reset(sessionId);
+
+    assertThat(redisTemplate.hasKey(key)).isFalse();
+    assertThat(counter.increment(sessionId, Duration.ofMinutes(30))).isEqualTo(1);
+    counter.reset(sessionId);
+  }
+}
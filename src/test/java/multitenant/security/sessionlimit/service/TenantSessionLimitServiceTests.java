@@ -3,16 +3,22 @@ package multitenant.security.sessionlimit.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.time.Clock;
 import java.time.Duration;
 import java.util.Optional;
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
 import multitenant.security.sessionlimit.domain.TenantSessionLimit;
+import multitenant.security.sessionlimit.domain.TenantSessionLimitChangedEvent;
 import multitenant.security.sessionlimit.repository.TenantSessionLimitRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
 
 class TenantSessionLimitServiceTests {
 
@@ -46,6 +52,35 @@ class TenantSessionLimitServiceTests {
     assertThat(settings.maxDuration()).isEqualTo(Duration.ofHours(1));
   }
 
+  @Test
+  void resolveForTenantCachesSettingsUntilEvicted() {
+    TenantSessionLimit entity = new TenantSessionLimit("tenantA", 2, 600, 3600);
+    given(repository.findById("tenantA")).willReturn(Optional.of(entity));
+
+    service.resolveForTenant("tenantA");
+    service.resolveForTenant(" tenantA ");
+    verify(repository, times(1)).findById("tenantA");
+
+    entity.setMaxSessions(5);
+    service.evict("tenantA");
+
+    assertThat(service.resolveForTenant("tenantA").maxSessions()).isEqualTo(5);
+    verify(repository, times(2)).findById("tenantA");
+  }
+
+  @Test
+  void upsertPublishesChangeEvent() {
+    ApplicationEventPublisher publisher = Mockito.mock(ApplicationEventPublisher.class);
+    service = new TenantSessionLimitService(repository, publisher, Clock.systemUTC(),
+        Duration.ofMinutes(5));
+    given(repository.findById("tenantB")).willReturn(Optional.empty());
+    given(repository.save(Mockito.any())).willAnswer(invocation -> invocation.getArgument(0));
+
+    service.upsert("tenantB", 1, 600, 0);
+
+    verify(publisher).publishEvent(new TenantSessionLimitChangedEvent("tenantB"));
+  }
+
   @Test
   void resolveForTenantTreatsZeroAsUnlimited() {
     TenantSessionLimit entity = new TenantSessionLimit("tenantZ", 3, 0, 0);
@@ -71,6 +106,43 @@ class TenantSessionLimitServiceTests {
     assertThat(updated.getMaxDurationSeconds()).isEqualTo(7200);
   }
 
+  @Test
+  void upsertRequiresIntervalOrRequestCountForIntervalRotation() {
+    given(repository.findById("tenantC")).willReturn(Optional.empty());
+
+    SessionLimitSettings settings = new SessionLimitSettings(1, 0,
+        SessionEvictionPolicy.OLDEST_FIRST, Duration.ofSeconds(600), Duration.ZERO,
+        SessionRotationStrategy.INTERVAL, Duration.ZERO, 0);
+
+    assertThatThrownBy(() -> service.upsert("tenantC", settings))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void upsertPersistsUserLimitAndEvictionPolicy() {
+    given(repository.findById("tenantD")).willReturn(Optional.empty());
+    given(repository.save(Mockito.any())).willAnswer(invocation -> invocation.getArgument(0));
+
+    TenantSessionLimit saved = service.upsert("tenantD", new SessionLimitSettings(10, 2,
+        SessionEvictionPolicy.REJECT_NEW, Duration.ofMinutes(20), Duration.ZERO,
+        SessionRotationStrategy.ON_LOGIN, Duration.ZERO, 0));
+
+    assertThat(saved.getMaxSessionsPerUser()).isEqualTo(2);
+    assertThat(saved.getEvictionPolicy()).isEqualTo(SessionEvictionPolicy.REJECT_NEW);
+    assertThat(saved.getMaxIdleSeconds()).isEqualTo(1200);
+  }
+
+  @Test
+  void resolveForTenantDefaultsToRotationOnLogin() {
+    TenantSessionLimit entity = new TenantSessionLimit("tenantA", 2, 600, 3600);
+    given(repository.findById("tenantA")).willReturn(Optional.of(entity));
+
+    SessionLimitSettings settings = service.resolveForTenant("tenantA");
+
+    assertThat(settings.rotationStrategy()).isEqualTo(SessionRotationStrategy.ON_LOGIN);
+    assertThat(settings.hasRotationInterval()).isFalse();
+  }
+
   @Test
   void upsertRejectsBlankTenantId() {
     assertThatThrownBy(() -> service.upsert(" ", 1, 1, 1))
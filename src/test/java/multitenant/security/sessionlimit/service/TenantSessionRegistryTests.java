@@ -0,0 +1,152 @@
+package multitenant.security.sessionlimit.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.lettuce.core.cluster.SlotHash;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import multitenant.security.sessionlimit.domain.SessionEvictionPolicy;
+import multitenant.security.sessionlimit.domain.SessionRotationStrategy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TenantSessionRegistryTests {
+
+  @Autowired
+  private TenantSessionRegistry registry;
+
+  @Autowired
+  private StringRedisTemplate redisTemplate;
+
+  private String tenantId;
+
+  @BeforeEach
+  void setUp() {
+    tenantId = "registry-" + UUID.randomUUID();
+  }
+
+  @Test
+  void evictsOldestSessionsBeyondLimit() throws Exception {
+    SessionLimitSettings settings = new SessionLimitSettings(2, Duration.ofMinutes(30),
+        Duration.ZERO);
+
+    assertThat(registry.register(tenantId, "alice", "s1", null, settings).evictedSessionIds())
+        .isEmpty();
+    Thread.sleep(5);
+    assertThat(registry.register(tenantId, "bob", "s2", null, settings).evictedSessionIds())
+        .isEmpty();
+    Thread.sleep(5);
+    List<String> evicted = registry.register(tenantId, "carol", "s3", null, settings)
+        .evictedSessionIds();
+
+    assertThat(evicted).containsExactly("s1");
+    assertThat(registry.count(tenantId)).isEqualTo(2);
+  }
+
+  @Test
+  void neverEvictsTheRegisteringSession() {
+    SessionLimitSettings settings = new SessionLimitSettings(1, Duration.ofMinutes(30),
+        Duration.ZERO);
+
+    registry.register(tenantId, "alice", "s1", null, settings);
+    registry.register(tenantId, "bob", "s2", null, settings);
+    List<String> evicted = registry.register(tenantId, "alice", "s1", null, settings)
+        .evictedSessionIds();
+
+    assertThat(evicted).containsExactly("s2");
+    assertThat(registry.count(tenantId)).isEqualTo(1);
+  }
+
+  @Test
+  void replacesRotatedSessionId() {
+    SessionLimitSettings settings = new SessionLimitSettings(1, Duration.ofMinutes(30),
+        Duration.ZERO);
+
+    registry.register(tenantId, "alice", "before", null, settings);
+    List<String> evicted = registry.register(tenantId, "alice", "after", "before", settings)
+        .evictedSessionIds();
+
+    assertThat(evicted).isEmpty();
+    assertThat(registry.count(tenantId)).isEqualTo(1);
+  }
+
+  @Test
+  void limitsSessionsPerUserIndependentlyOfTenant() {
+    SessionLimitSettings settings = new SessionLimitSettings(10, 1,
+        SessionEvictionPolicy.OLDEST_FIRST, Duration.ofMinutes(30), Duration.ZERO,
+        SessionRotationStrategy.ON_LOGIN, Duration.ZERO, 0);
+
+    registry.register(tenantId, "alice", "a1", null, settings);
+    registry.register(tenantId, "bob", "b1", null, settings);
+    List<String> evicted = registry.register(tenantId, "alice", "a2", null, settings)
+        .evictedSessionIds();
+
+    assertThat(evicted).containsExactly("a1");
+    assertThat(registry.sessionIdsForUser(tenantId, "alice")).containsExactly("a2");
+    assertThat(registry.countForUser(tenantId, "bob")).isEqualTo(1);
+    assertThat(registry.count(tenantId)).isEqualTo(2);
+  }
+
+  @Test
+  void rejectsNewSessionWhenUserLimitReached() {
+    SessionLimitSettings settings = new SessionLimitSettings(10, 1,
+        SessionEvictionPolicy.REJECT_NEW, Duration.ofMinutes(30), Duration.ZERO,
+        SessionRotationStrategy.ON_LOGIN, Duration.ZERO, 0);
+
+    assertThat(registry.register(tenantId, "alice", "a1", null, settings).accepted()).isTrue();
+    assertThat(registry.register(tenantId, "alice", "a2", null, settings).accepted()).isFalse();
+    assertThat(registry.register(tenantId, "alice", "a1", null, settings).accepted()).isTrue();
+    assertThat(registry.sessionIdsForUser(tenantId, "alice")).containsExactly("a1");
+  }
+
+  @Test
+  void unregisterRemovesSessionFromUserIndex() {
+    SessionLimitSettings settings = new SessionLimitSettings(10, 5,
+        SessionEvictionPolicy.OLDEST_FIRST, Duration.ofMinutes(30), Duration.ZERO,
+        SessionRotationStrategy.ON_LOGIN, Duration.ZERO, 0);
+
+    registry.register(tenantId, "alice", "a1", null, settings);
+    registry.unregister(tenantId, "a1");
+
+    assertThat(registry.count(tenantId)).isZero();
+    assertThat(registry.countForUser(tenantId, "alice")).isZero();
+  }
+
+  @Test
+  void dropsEntriesNotAccessedWithinStaleAfterWithoutIdleLimit() {
+    SessionLimitSettings settings = new SessionLimitSettings(10, Duration.ZERO, Duration.ZERO);
+    Instant start = Instant.parse("2026-01-01T00:00:00Z");
+    Duration staleAfter = Duration.ofMinutes(30);
+
+    registryAt(start, staleAfter).register(tenantId, "alice", "a1", null, settings);
+    registryAt(start.plus(Duration.ofMinutes(31)), staleAfter)
+        .register(tenantId, "bob", "b1", null, settings);
+
+    assertThat(registry.count(tenantId)).isEqualTo(1);
+    assertThat(registry.countForUser(tenantId, "alice")).isZero();
+  }
+
+  @Test
+  void allTenantKeysShareOneClusterSlot() {
+    int slot = SlotHash.getSlot(registry.tenantKey(tenantId));
+
+    assertThat(SlotHash.getSlot(registry.ownersKey(tenantId))).isEqualTo(slot);
+    assertThat(SlotHash.getSlot(registry.userKey(tenantId, "alice"))).isEqualTo(slot);
+    assertThat(SlotHash.getSlot(registry.userKey(tenantId, "bob"))).isEqualTo(slot);
+  }
+
+  private TenantSessionRegistry registryAt(Instant now, Duration staleAfter) {
+    return new TenantSessionRegistry(redisTemplate, Clock.fixed(now, ZoneOffset.UTC),
+        "octatco:sso:tenant-sessions:", staleAfter);
+  }
+}